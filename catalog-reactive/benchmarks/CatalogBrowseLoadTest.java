@@ -0,0 +1,83 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a fixed number of catalog requests in flight against one node and
+ * reports throughput and latency, so the MVC backend (port 8080) and the
+ * reactive catalog (port 8081) can be compared at the same concurrency. Pin
+ * both servers to the same number of cores (e.g. taskset or a container CPU
+ * limit) to compare per core.
+ *
+ *   java benchmarks/CatalogBrowseLoadTest.java [baseUrl] [concurrency] [seconds] [maxPlantId]
+ *   java benchmarks/CatalogBrowseLoadTest.java http://localhost:8081/api 2000 30 500
+ */
+public class CatalogBrowseLoadTest {
+
+    private static final String[] CATEGORIES = {"INDOOR", "OUTDOOR", "SUCCULENT", "HERB", "FLOWER", "TREE", "VINE"};
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081/api";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        int maxPlantId = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client.sendAsync(HttpRequest.newBuilder(URI.create(baseUrl + nextPath(maxPlantId)))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() >= 300) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add((System.nanoTime() - start) / 1_000);
+                        inFlight.release();
+                    });
+        }
+        inFlight.acquire(concurrency);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("%s concurrency=%d requests=%d errors=%d%n", baseUrl, concurrency, sorted.length, errors.get());
+        System.out.printf("throughput %.0f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                sorted.length / (double) duration.toSeconds(), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                percentile(sorted, 1.0));
+    }
+
+    /**
+     * Mostly single-plant lookups with some category listings, like people
+     * browsing the shop.
+     */
+    private static String nextPath(int maxPlantId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(10) < 8) {
+            return "/plants/" + (1 + random.nextInt(maxPlantId));
+        }
+        return "/plants/category/" + CATEGORIES[random.nextInt(CATEGORIES.length)];
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.greenroots.catalog.controller;
+
+import com.greenroots.catalog.dto.PlantDTO;
+import com.greenroots.catalog.entity.Plant;
+import com.greenroots.catalog.service.PlantService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/plants")
+@RequiredArgsConstructor
+public class PlantController {
+
+    private final PlantService plantService;
+
+    @GetMapping
+    public Flux<PlantDTO> getAllPlants() {
+        return plantService.getAllPlants();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<PlantDTO> getPlantById(@PathVariable Long id) {
+        return plantService.getPlantById(id);
+    }
+
+    @GetMapping("/category/{category}")
+    public Flux<PlantDTO> getPlantsByCategory(@PathVariable Plant.Category category) {
+        return plantService.getPlantsByCategory(category);
+    }
+}
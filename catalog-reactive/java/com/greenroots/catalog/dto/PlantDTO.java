@@ -0,0 +1,51 @@
+package com.greenroots.catalog.dto;
+
+import com.greenroots.catalog.entity.Plant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Same JSON shape as the main backend's plant responses.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class PlantDTO {
+    private Long id;
+    private String name;
+    private String scientificName;
+    private String description;
+    private String category;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String lightRequirement;
+    private String waterRequirement;
+    private String imageUrl;
+    private Boolean active;
+    private LocalDateTime createdAt;
+
+    /**
+     * Catalog document without stock; stock is merged in at read time.
+     */
+    public static PlantDTO fromEntity(Plant plant) {
+        return PlantDTO.builder()
+                .id(plant.getId())
+                .name(plant.getName())
+                .scientificName(plant.getScientificName())
+                .description(plant.getDescription())
+                .category(plant.getCategory().name())
+                .price(plant.getPrice())
+                .lightRequirement(plant.getLightRequirement().name())
+                .waterRequirement(plant.getWaterRequirement().name())
+                .imageUrl(plant.getImageUrl())
+                .active(plant.getActive())
+                .createdAt(plant.getCreatedAt())
+                .build();
+    }
+}
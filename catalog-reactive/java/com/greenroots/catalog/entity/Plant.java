@@ -0,0 +1,48 @@
+package com.greenroots.catalog.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of the {@code plants} table owned by the main backend.
+ */
+@Table("plants")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Plant {
+
+    @Id
+    private Long id;
+    private String name;
+    private String scientificName;
+    private String description;
+    private Category category;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private LightRequirement lightRequirement;
+    private WaterRequirement waterRequirement;
+    private String imageUrl;
+    private Boolean active;
+    private LocalDateTime createdAt;
+
+    public enum Category {
+        INDOOR, OUTDOOR, SUCCULENT, HERB, FLOWER, TREE, VINE
+    }
+
+    public enum LightRequirement {
+        LOW, MEDIUM, HIGH, FULL_SUN, PARTIAL_SHADE
+    }
+
+    public enum WaterRequirement {
+        LOW, MEDIUM, HIGH
+    }
+}
@@ -0,0 +1,7 @@
+package com.greenroots.catalog.exception;
+
+public class ResourceNotFoundException extends RuntimeException {
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
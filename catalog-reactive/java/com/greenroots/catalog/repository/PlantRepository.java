@@ -0,0 +1,27 @@
+package com.greenroots.catalog.repository;
+
+import com.greenroots.catalog.entity.Plant;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+public interface PlantRepository extends ReactiveCrudRepository<Plant, Long> {
+
+    Flux<Plant> findByActiveTrueOrderById();
+
+    Flux<Plant> findByCategoryAndActiveTrueOrderById(Plant.Category category);
+
+    @Query("SELECT id, stock_quantity FROM plants WHERE id IN (:ids)")
+    Flux<StockLevel> findStockByIdIn(@Param("ids") Collection<Long> ids);
+
+    interface StockLevel {
+        Long getId();
+
+        Integer getStockQuantity();
+    }
+}
@@ -0,0 +1,59 @@
+package com.greenroots.catalog.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Evicts cached documents when the main backend announces a plant change on
+ * {@value #CHANNEL} (message {@code nodeId:plantId}, published after commit).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogChangeListener {
+
+    public static final String CHANNEL = "catalog:plant-changed";
+
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final PlantCatalog plantCatalog;
+
+    private ReactiveRedisMessageListenerContainer container;
+    private Disposable subscription;
+
+    @PostConstruct
+    public void start() {
+        container = new ReactiveRedisMessageListenerContainer(connectionFactory);
+        subscription = container.receive(ChannelTopic.of(CHANNEL))
+                .concatMap(message -> evict(message.getMessage()))
+                .retry()
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscription.dispose();
+        container.destroy();
+    }
+
+    private Mono<Void> evict(String message) {
+        try {
+            Long plantId = Long.valueOf(message.substring(message.lastIndexOf(':') + 1));
+            return plantCatalog.evict(plantId)
+                    .onErrorResume(e -> {
+                        log.error("Failed to evict catalog entries for plant {}: {}", plantId, e.getMessage());
+                        return Mono.empty();
+                    });
+        } catch (NumberFormatException e) {
+            log.error("Ignoring malformed catalog change message: {}", message);
+            return Mono.empty();
+        }
+    }
+}
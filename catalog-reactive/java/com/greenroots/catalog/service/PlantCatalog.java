@@ -0,0 +1,171 @@
+package com.greenroots.catalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenroots.catalog.dto.PlantDTO;
+import com.greenroots.catalog.entity.Plant;
+import com.greenroots.catalog.repository.PlantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Plant documents (without stock) cached in Redis. Each plant is stored once
+ * under its own key; lists are stored as id lists in one hash, so a plant
+ * change only has to drop its document and the list hash. Redis failures
+ * fall through to the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlantCatalog {
+
+    static final String DOCUMENT_KEY_PREFIX = "catalog:plant:";
+    static final String LISTS_KEY = "catalog:plant-lists";
+    private static final String ALL_PLANTS_FIELD = "all";
+
+    private final PlantRepository plantRepository;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.catalog.cache.ttl}")
+    private Duration ttl;
+
+    public Mono<PlantDTO> getPlant(Long id) {
+        return redisTemplate.opsForValue().get(documentKey(id))
+                .map(this::read)
+                .onErrorResume(this::cacheUnavailable)
+                .switchIfEmpty(Mono.defer(() -> plantRepository.findById(id)
+                        .map(PlantDTO::fromEntity)
+                        .flatMap(plant -> cacheDocument(plant).thenReturn(plant))));
+    }
+
+    public Flux<PlantDTO> getAllPlants() {
+        return getList(ALL_PLANTS_FIELD, plantRepository::findByActiveTrueOrderById);
+    }
+
+    public Flux<PlantDTO> getPlantsByCategory(Plant.Category category) {
+        return getList("category:" + category, () -> plantRepository.findByCategoryAndActiveTrueOrderById(category));
+    }
+
+    /**
+     * Drops everything a change to this plant can affect.
+     */
+    public Mono<Void> evict(Long plantId) {
+        return redisTemplate.delete(documentKey(plantId), LISTS_KEY).then();
+    }
+
+    private Flux<PlantDTO> getList(String field, Supplier<Flux<Plant>> loader) {
+        return lists().get(LISTS_KEY, field)
+                .onErrorResume(this::cacheUnavailable)
+                .map(ids -> getPlants(parseIds(ids)))
+                .switchIfEmpty(Mono.fromSupplier(() -> loadList(field, loader)))
+                .flatMapMany(Function.identity());
+    }
+
+    private Flux<PlantDTO> loadList(String field, Supplier<Flux<Plant>> loader) {
+        return loader.get()
+                .map(PlantDTO::fromEntity)
+                .collectList()
+                .flatMap(plants -> Flux.fromIterable(plants)
+                        .flatMap(this::cacheDocument)
+                        .then(lists().put(LISTS_KEY, field, joinIds(plants)))
+                        .then(redisTemplate.expire(LISTS_KEY, ttl))
+                        .onErrorResume(this::cacheUnavailable)
+                        .thenReturn(plants))
+                .flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Documents for the given ids in that order, reading the ones missing from
+     * Redis from the database in one query.
+     */
+    private Flux<PlantDTO> getPlants(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        List<String> keys = ids.stream().map(PlantCatalog::documentKey).collect(Collectors.toList());
+        return redisTemplate.opsForValue().multiGet(keys)
+                .onErrorResume(e -> cacheUnavailable(e).thenReturn(Arrays.asList(new String[ids.size()])))
+                .flatMapMany(values -> {
+                    Map<Long, PlantDTO> plants = new HashMap<>();
+                    for (int i = 0; i < ids.size(); i++) {
+                        if (values.get(i) != null) {
+                            plants.put(ids.get(i), read(values.get(i)));
+                        }
+                    }
+                    List<Long> missing = ids.stream()
+                            .filter(id -> !plants.containsKey(id))
+                            .collect(Collectors.toList());
+
+                    Mono<Map<Long, PlantDTO>> complete = missing.isEmpty()
+                            ? Mono.just(plants)
+                            : plantRepository.findAllById(missing)
+                                    .map(PlantDTO::fromEntity)
+                                    .flatMap(plant -> cacheDocument(plant).thenReturn(plant))
+                                    .doOnNext(plant -> plants.put(plant.getId(), plant))
+                                    .then(Mono.just(plants));
+                    return complete.flatMapIterable(found -> ids.stream()
+                            .map(found::get)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList()));
+                });
+    }
+
+    private Mono<Boolean> cacheDocument(PlantDTO plant) {
+        try {
+            return redisTemplate.opsForValue()
+                    .set(documentKey(plant.getId()), objectMapper.writeValueAsString(plant), ttl)
+                    .onErrorResume(this::cacheUnavailable);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private PlantDTO read(String json) {
+        try {
+            return objectMapper.readValue(json, PlantDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable catalog entry", e);
+        }
+    }
+
+    private <T> Mono<T> cacheUnavailable(Throwable e) {
+        log.warn("Redis unavailable for catalog cache, using database: {}", e.getMessage());
+        return Mono.empty();
+    }
+
+    private ReactiveHashOperations<String, String, String> lists() {
+        return redisTemplate.opsForHash();
+    }
+
+    private static List<Long> parseIds(String ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.stream(ids.split(",")).map(Long::valueOf).collect(Collectors.toList());
+    }
+
+    private static String joinIds(List<PlantDTO> plants) {
+        return plants.stream().map(plant -> String.valueOf(plant.getId())).collect(Collectors.joining(","));
+    }
+
+    static String documentKey(Long id) {
+        return DOCUMENT_KEY_PREFIX + id;
+    }
+}
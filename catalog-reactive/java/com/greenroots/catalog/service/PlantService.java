@@ -0,0 +1,31 @@
+package com.greenroots.catalog.service;
+
+import com.greenroots.catalog.dto.PlantDTO;
+import com.greenroots.catalog.entity.Plant;
+import com.greenroots.catalog.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class PlantService {
+
+    private final PlantCatalog plantCatalog;
+    private final StockReader stockReader;
+
+    public Flux<PlantDTO> getAllPlants() {
+        return stockReader.withCurrentStock(plantCatalog.getAllPlants());
+    }
+
+    public Mono<PlantDTO> getPlantById(Long id) {
+        return plantCatalog.getPlant(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Plant not found with id: " + id)))
+                .flatMap(stockReader::withCurrentStock);
+    }
+
+    public Flux<PlantDTO> getPlantsByCategory(Plant.Category category) {
+        return stockReader.withCurrentStock(plantCatalog.getPlantsByCategory(category));
+    }
+}
@@ -0,0 +1,76 @@
+package com.greenroots.catalog.service;
+
+import com.greenroots.catalog.dto.PlantDTO;
+import com.greenroots.catalog.repository.PlantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads current stock the same way the main backend does: from the
+ * {@code plant:stock} Redis hash it keeps up to date, falling back to the
+ * {@code stock_quantity} column for plants not in the hash or when Redis is
+ * down. Never writes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReader {
+
+    static final String STOCK_KEY = "plant:stock";
+
+    private final PlantRepository plantRepository;
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    @Value("${app.catalog.stock-batch-size}")
+    private int batchSize;
+
+    public Mono<PlantDTO> withCurrentStock(PlantDTO plant) {
+        return getStock(List.of(plant.getId()))
+                .map(stock -> plant.toBuilder().stockQuantity(stock.get(plant.getId())).build());
+    }
+
+    public Flux<PlantDTO> withCurrentStock(Flux<PlantDTO> plants) {
+        return plants.buffer(batchSize)
+                .concatMap(batch -> getStock(batch.stream().map(PlantDTO::getId).collect(Collectors.toList()))
+                        .flatMapIterable(stock -> batch.stream()
+                                .map(plant -> plant.toBuilder().stockQuantity(stock.get(plant.getId())).build())
+                                .collect(Collectors.toList())));
+    }
+
+    private Mono<Map<Long, Integer>> getStock(List<Long> ids) {
+        List<Object> fields = ids.stream().map(String::valueOf).collect(Collectors.toList());
+        return redisTemplate.<Object, String>opsForHash().multiGet(STOCK_KEY, fields)
+                .flatMap(values -> {
+                    Map<Long, Integer> stock = new HashMap<>();
+                    for (int i = 0; i < ids.size(); i++) {
+                        if (values.get(i) != null) {
+                            stock.put(ids.get(i), Integer.parseInt(values.get(i)));
+                        }
+                    }
+                    List<Long> missing = ids.stream()
+                            .filter(id -> !stock.containsKey(id))
+                            .collect(Collectors.toList());
+                    return missing.isEmpty() ? Mono.just(stock) : readFromDatabase(missing, stock);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Redis unavailable for stock lookup, reading from database: {}", e.getMessage());
+                    return readFromDatabase(ids, new HashMap<>());
+                });
+    }
+
+    private Mono<Map<Long, Integer>> readFromDatabase(List<Long> ids, Map<Long, Integer> stock) {
+        return plantRepository.findStockByIdIn(ids)
+                .doOnNext(level -> stock.put(level.getId(), level.getStockQuantity()))
+                .then(Mono.just(stock));
+    }
+}
@@ -0,0 +1,263 @@
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.greenroots.entity.Order;
+import com.greenroots.entity.OrderItem;
+import com.greenroots.entity.Payment;
+import com.greenroots.entity.Plant;
+import com.greenroots.entity.User;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statements and database round trips per order, and orders/sec, for 1, 10
+ * and 50-item carts. Each order runs the write path of a database-mode
+ * checkout in its own transaction: load the plants, decrement their stock,
+ * insert the order, its items and its payment. Every cart size is run with
+ * JDBC batching on (as configured in application.yml) and off.
+ *
+ * Needs a database migrated by the application (Flyway); a throwaway user and
+ * plants are created and removed again.
+ *
+ * Run from main/ after a build:
+ *   java -cp "target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *       benchmarks/OrderInsertBenchmark.java [jdbcUrl] [username] [password] [ordersPerRun]
+ *   ... benchmarks/OrderInsertBenchmark.java \
+ *       "jdbc:postgresql://localhost:5432/greenroots?reWriteBatchedInserts=true" greenroots_user greenroots_pass 500
+ */
+public class OrderInsertBenchmark {
+
+    private static final int[] CART_SIZES = {1, 10, 50};
+    private static final int WARMUP_ORDERS = 500;
+
+    private static final AtomicLong statements = new AtomicLong();
+    private static final AtomicLong roundTrips = new AtomicLong();
+
+    public static void main(String[] args) {
+        String url = args.length > 0 ? args[0] : "jdbc:postgresql://localhost:5432/greenroots?reWriteBatchedInserts=true";
+        String username = args.length > 1 ? args[1] : "greenroots_user";
+        String password = args.length > 2 ? args[2] : "greenroots_pass";
+        int orders = args.length > 3 ? Integer.parseInt(args[3]) : 500;
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        try (HikariDataSource pool = new HikariDataSource()) {
+            pool.setJdbcUrl(url);
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(2);
+            DataSource counted = countingDataSource(pool);
+
+            System.out.printf("%-10s %-8s %10s %12s %12s%n", "cart", "batching", "orders/s", "stmts/order", "trips/order");
+            for (int cartSize : CART_SIZES) {
+                for (boolean batching : new boolean[]{true, false}) {
+                    try (SessionFactory sessionFactory = sessionFactory(counted, batching)) {
+                        Fixture fixture = createFixture(sessionFactory, cartSize);
+                        try {
+                            run(sessionFactory, fixture, WARMUP_ORDERS);
+                            statements.set(0);
+                            roundTrips.set(0);
+
+                            long start = System.nanoTime();
+                            run(sessionFactory, fixture, orders);
+                            double seconds = (System.nanoTime() - start) / 1e9;
+
+                            System.out.printf("%-10s %-8s %10.0f %12.1f %12.1f%n", cartSize + " items",
+                                    batching ? "on" : "off", orders / seconds,
+                                    (double) statements.get() / orders, (double) roundTrips.get() / orders);
+                        } finally {
+                            removeFixture(sessionFactory, fixture);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void run(SessionFactory sessionFactory, Fixture fixture, int orders) {
+        for (int i = 0; i < orders; i++) {
+            sessionFactory.inTransaction(session -> placeOrder(session, fixture));
+        }
+    }
+
+    private static void placeOrder(Session session, Fixture fixture) {
+        LocalDateTime now = LocalDateTime.now();
+        Order order = Order.builder()
+                .orderNumber("BENCH-" + UUID.randomUUID())
+                .user(session.getReference(User.class, fixture.userId()))
+                .status(Order.OrderStatus.PENDING)
+                .shippingAddress("1 Bench Street")
+                .shippingCity("Benchville")
+                .shippingPostalCode("00000")
+                .shippingCountry("NL")
+                .orderItems(new ArrayList<>())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        List<Plant> plants = session.createSelectionQuery("from Plant p where p.id in :ids", Plant.class)
+                .setParameter("ids", fixture.plantIds())
+                .getResultList();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Plant plant : plants) {
+            plant.setStockQuantity(plant.getStockQuantity() - 1);
+            order.addOrderItem(OrderItem.builder()
+                    .plant(plant)
+                    .quantity(1)
+                    .priceAtPurchase(plant.getPrice())
+                    .subtotal(plant.getPrice())
+                    .build());
+            total = total.add(plant.getPrice());
+        }
+        order.setTotalAmount(total);
+        session.persist(order);
+
+        session.persist(Payment.builder()
+                .order(order)
+                .amount(total)
+                .currency("usd")
+                .status(Payment.PaymentStatus.PENDING)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private static Fixture createFixture(SessionFactory sessionFactory, int cartSize) {
+        return sessionFactory.fromTransaction(session -> {
+            LocalDateTime now = LocalDateTime.now();
+            User user = User.builder()
+                    .email("bench-" + UUID.randomUUID() + "@example.com")
+                    .password("-")
+                    .fullName("Benchmark")
+                    .phoneNumber("0")
+                    .role(User.Role.USER)
+                    .active(true)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            session.persist(user);
+
+            List<Long> plantIds = new ArrayList<>();
+            for (int i = 0; i < cartSize; i++) {
+                Plant plant = Plant.builder()
+                        .name("Bench plant " + i)
+                        .scientificName("Benchmarkia " + i)
+                        .category(Plant.Category.INDOOR)
+                        .price(BigDecimal.valueOf(1_000 + i, 2))
+                        .stockQuantity(Integer.MAX_VALUE)
+                        .lightRequirement(Plant.LightRequirement.MEDIUM)
+                        .waterRequirement(Plant.WaterRequirement.MEDIUM)
+                        .imageUrl("-")
+                        .active(false)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build();
+                session.persist(plant);
+                plantIds.add(plant.getId());
+            }
+            return new Fixture(user.getId(), plantIds);
+        });
+    }
+
+    private static void removeFixture(SessionFactory sessionFactory, Fixture fixture) {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("delete from Payment p where p.order.id in (select o.id from Order o where o.user.id = :userId)")
+                    .setParameter("userId", fixture.userId()).executeUpdate();
+            session.createMutationQuery("delete from OrderItem i where i.order.id in (select o.id from Order o where o.user.id = :userId)")
+                    .setParameter("userId", fixture.userId()).executeUpdate();
+            session.createMutationQuery("delete from Order o where o.user.id = :userId")
+                    .setParameter("userId", fixture.userId()).executeUpdate();
+            session.createMutationQuery("delete from Plant p where p.id in :ids")
+                    .setParameter("ids", fixture.plantIds()).executeUpdate();
+            session.createMutationQuery("delete from User u where u.id = :userId")
+                    .setParameter("userId", fixture.userId()).executeUpdate();
+        });
+    }
+
+    @SuppressWarnings("deprecation")
+    private static SessionFactory sessionFactory(DataSource dataSource, boolean batching) {
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Plant.class)
+                .addAnnotatedClass(Order.class)
+                .addAnnotatedClass(OrderItem.class)
+                .addAnnotatedClass(Payment.class)
+                .setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy())
+                .setImplicitNamingStrategy(new SpringImplicitNamingStrategy())
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, batching ? "50" : "0")
+                .setProperty(AvailableSettings.ORDER_INSERTS, String.valueOf(batching))
+                .setProperty(AvailableSettings.ORDER_UPDATES, String.valueOf(batching))
+                .setProperty(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, dataSource);
+        return configuration.buildSessionFactory();
+    }
+
+    /**
+     * Counts every statement the application sends, and every round trip:
+     * a single execute is one trip, a whole JDBC batch is one trip.
+     */
+    private static DataSource countingDataSource(DataSource target) {
+        return proxy(DataSource.class, target, (method, result) ->
+                method.equals("getConnection") ? proxy(Connection.class, (Connection) result, (connectionMethod, statement) ->
+                        statement instanceof PreparedStatement prepared && connectionMethod.startsWith("prepare")
+                                ? proxy(PreparedStatement.class, prepared, OrderInsertBenchmark::countExecution)
+                                : statement instanceof Statement plain && connectionMethod.equals("createStatement")
+                                ? proxy(Statement.class, plain, OrderInsertBenchmark::countExecution)
+                                : statement)
+                        : result);
+    }
+
+    private static Object countExecution(String method, Object result) {
+        switch (method) {
+            case "addBatch" -> statements.incrementAndGet();
+            case "executeBatch", "executeLargeBatch" -> roundTrips.incrementAndGet();
+            case "execute", "executeQuery", "executeUpdate", "executeLargeUpdate" -> {
+                statements.incrementAndGet();
+                roundTrips.incrementAndGet();
+            }
+            default -> {
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            try {
+                return mapper.map(method.getName(), method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(OrderInsertBenchmark.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private interface ResultMapper {
+        Object map(String method, Object result) throws Throwable;
+    }
+
+    private record Fixture(Long userId, List<Long> plantIds) {
+    }
+}
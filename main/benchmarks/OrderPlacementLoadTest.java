@@ -0,0 +1,148 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds how many concurrent order placements one running node sustains.
+ * Each step keeps N clients calling POST /orders back to back for a fixed
+ * time, then reports throughput and latency; the run stops at the first step
+ * whose error rate or p99 exceeds the limits. Run it once against a node on
+ * platform threads and once with the virtual-threads profile, with the same
+ * database, Redis and Kafka, and compare the last passing step.
+ *
+ * The plant must exist and have enough stock for the whole run.
+ *
+ *   java benchmarks/OrderPlacementLoadTest.java [baseUrl] [plantId] [steps] [secondsPerStep]
+ *   java benchmarks/OrderPlacementLoadTest.java http://localhost:8080/api 1 50,100,200,400,800,1600 30
+ */
+public class OrderPlacementLoadTest {
+
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final long MAX_P99_MILLIS = 2_000;
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080/api";
+        long plantId = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int[] steps = Arrays.stream((args.length > 2 ? args[2] : "50,100,200,400,800,1600").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        Duration stepDuration = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String token = register(client, baseUrl);
+        String order = """
+                {"items":[{"plantId":%d,"quantity":1}],"shippingAddress":"1 Load Test Way",\
+                "shippingCity":"Portland","shippingPostalCode":"97201","shippingCountry":"US"}"""
+                .formatted(plantId);
+
+        int lastPassing = 0;
+        System.out.printf("%8s %10s %8s %8s %8s %8s%n", "clients", "orders/s", "errors", "p50 ms", "p99 ms", "max ms");
+        for (int clients : steps) {
+            StepResult result = runStep(client, baseUrl, token, order, clients, stepDuration);
+            System.out.printf("%8d %10.1f %7.2f%% %8d %8d %8d%n", clients, result.throughput(),
+                    result.errorRate() * 100, result.percentile(0.50), result.percentile(0.99),
+                    result.percentile(1.0));
+            if (result.errorRate() > MAX_ERROR_RATE || result.percentile(0.99) > MAX_P99_MILLIS) {
+                break;
+            }
+            lastPassing = clients;
+        }
+        System.out.printf("max concurrent order placements within limits: %d%n", lastPassing);
+    }
+
+    private static StepResult runStep(HttpClient client, String baseUrl, String token, String order,
+                                      int clients, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<long[]> latencies = new ArrayList<>();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+
+        for (int i = 0; i < clients; i++) {
+            long[] samples = new long[1 << 16];
+            int[] count = new int[1];
+            synchronized (latencies) {
+                latencies.add(samples);
+            }
+            executor.execute(() -> {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/orders"))
+                        .timeout(Duration.ofSeconds(30))
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", "Bearer " + token)
+                        .POST(HttpRequest.BodyPublishers.ofString(order))
+                        .build();
+                while (System.nanoTime() < deadline && count[0] < samples.length - 1) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    samples[++count[0]] = (System.nanoTime() - start) / 1_000_000;
+                }
+                samples[0] = count[0];
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        long[] all = latencies.stream()
+                .flatMapToLong(samples -> Arrays.stream(samples, 1, (int) samples[0] + 1))
+                .sorted()
+                .toArray();
+        return new StepResult(all, errors.get(), duration);
+    }
+
+    private static String register(HttpClient client, String baseUrl) throws Exception {
+        String email = "loadtest-" + UUID.randomUUID() + "@example.com";
+        String body = """
+                {"email":"%s","password":"loadtest-password","fullName":"Load Test","phoneNumber":"5550100"}"""
+                .formatted(email);
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() >= 300 || !matcher.find()) {
+            throw new IllegalStateException("Registration failed: " + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private record StepResult(long[] sortedLatencies, int errors, Duration duration) {
+
+        double throughput() {
+            return (sortedLatencies.length - errors) / (double) duration.toSeconds();
+        }
+
+        double errorRate() {
+            return sortedLatencies.length == 0 ? 1.0 : errors / (double) sortedLatencies.length;
+        }
+
+        long percentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)];
+        }
+    }
+}
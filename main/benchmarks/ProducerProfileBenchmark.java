@@ -0,0 +1,96 @@
+import com.greenroots.config.KafkaConfig;
+import com.greenroots.config.KafkaProducerProfiles;
+import com.greenroots.kafka.event.EventSchemaRegistry;
+import com.greenroots.kafka.event.EventSerde;
+import com.greenroots.kafka.event.OrderCreatedEvent;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * Events/sec for each producer profile against an embedded single-node Kafka,
+ * sending an order.created burst the way the outbox relay does (send all,
+ * flush, wait for every ack). Profile values mirror application.yml.
+ *
+ * Run from main/ after a build (needs the test classpath for the broker):
+ *   java -cp "target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *       benchmarks/ProducerProfileBenchmark.java
+ */
+public class ProducerProfileBenchmark {
+
+    private static final int WARMUP_EVENTS = 20_000;
+    private static final int EVENTS = 200_000;
+    private static final int BURST = 500;
+
+    public static void main(String[] args) throws Exception {
+        String topic = KafkaConfig.ORDER_CREATED_TOPIC;
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3, topic);
+        broker.afterPropertiesSet();
+
+        EventSerde serde = new EventSerde(new EventSchemaRegistry());
+        try {
+            profiles().forEach((name, profile) -> {
+                Map<String, Object> properties = new HashMap<>(profile.toProducerProperties());
+                properties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+                properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+                properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+                try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(properties)) {
+                    send(producer, serde, topic, WARMUP_EVENTS);
+                    long start = System.nanoTime();
+                    send(producer, serde, topic, EVENTS);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("%-20s %,10.0f events/s  (%s)%n", name, EVENTS / seconds, profile);
+                }
+            });
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static void send(KafkaProducer<String, byte[]> producer, EventSerde serde, String topic, int events) {
+        Future<?>[] acks = new Future<?>[BURST];
+        for (int sent = 0; sent < events; sent += BURST) {
+            for (int i = 0; i < BURST; i++) {
+                OrderCreatedEvent event = new OrderCreatedEvent(UUID.randomUUID().toString(), sent + i,
+                        "ORD-" + (sent + i), 52_117L, new BigDecimal("149.97"), "usd", 3, "PENDING",
+                        System.currentTimeMillis());
+                acks[i] = producer.send(new ProducerRecord<>(topic, event.orderNumber(), serde.serialize(topic, event)));
+            }
+            producer.flush();
+            for (Future<?> ack : acks) {
+                try {
+                    ack.get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private static Map<String, KafkaProducerProfiles.Profile> profiles() {
+        Map<String, KafkaProducerProfiles.Profile> profiles = new LinkedHashMap<>();
+        profiles.put("low-latency", profile(0, 16_384, "none"));
+        profiles.put("high-throughput", profile(20, 262_144, "zstd"));
+        profiles.put("high-throughput-lz4", profile(20, 262_144, "lz4"));
+        return profiles;
+    }
+
+    private static KafkaProducerProfiles.Profile profile(int lingerMs, int batchSize, String compressionType) {
+        KafkaProducerProfiles.Profile profile = new KafkaProducerProfiles.Profile();
+        profile.setLingerMs(lingerMs);
+        profile.setBatchSize(batchSize);
+        profile.setCompressionType(compressionType);
+        return profile;
+    }
+}
@@ -0,0 +1,96 @@
+package com.greenroots.benchmarks;
+
+import com.greenroots.config.KafkaConfig;
+import com.greenroots.kafka.event.EventSchemaRegistry;
+import com.greenroots.kafka.event.EventSerde;
+import com.greenroots.kafka.event.OrderCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the order.created payload written the old way (HashMap through
+ * Spring's JsonSerializer, same fields) with the typed Avro encoding:
+ * serialize/deserialize throughput, plus bytes per event printed once per fork.
+ *
+ * Run from main/ as described in the README (Micro-benchmarks):
+ *   java -cp "..." org.openjdk.jmh.Main EventPayloadBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class EventPayloadBenchmark {
+
+    private static final String TOPIC = KafkaConfig.ORDER_CREATED_TOPIC;
+
+    private OrderCreatedEvent event;
+    private Map<String, Object> map;
+    private EventSerde serde;
+    private JsonSerializer<Object> jsonSerializer;
+    private JsonDeserializer<Map> jsonDeserializer;
+    private byte[] json;
+    private byte[] avro;
+
+    @Setup
+    public void setUp() {
+        event = new OrderCreatedEvent(UUID.randomUUID().toString(), 184_223L, "ORD-9F3A21C7",
+                52_117L, new BigDecimal("149.97"), "usd", 3, "PENDING", System.currentTimeMillis());
+        map = new HashMap<>();
+        map.put("eventId", event.eventId());
+        map.put("orderId", event.orderId());
+        map.put("orderNumber", event.orderNumber());
+        map.put("userId", event.userId());
+        map.put("totalAmount", event.totalAmount());
+        map.put("currency", event.currency());
+        map.put("itemCount", event.itemCount());
+        map.put("status", event.status());
+        map.put("timestamp", event.timestamp());
+
+        serde = new EventSerde(new EventSchemaRegistry());
+        jsonSerializer = new JsonSerializer<>();
+        jsonDeserializer = new JsonDeserializer<>(Map.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+
+        json = jsonSerializer.serialize(TOPIC, map);
+        avro = serde.serialize(TOPIC, event);
+        System.out.printf("payload bytes: json(map)=%d avro(typed)=%d%n", json.length, avro.length);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(TOPIC, map);
+    }
+
+    @Benchmark
+    public byte[] avroSerialize() {
+        return serde.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public Map jsonDeserialize() {
+        return jsonDeserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent avroDeserialize() {
+        return OrderCreatedEvent.fromRecord(serde.deserialize(TOPIC, avro));
+    }
+}
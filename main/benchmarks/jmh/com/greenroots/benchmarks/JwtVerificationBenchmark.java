@@ -0,0 +1,110 @@
+package com.greenroots.benchmarks;
+
+import com.greenroots.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of verifying a JWT the old way (key and parser built per
+ * call, validateToken then getUsernameFromToken, so two parses and two HS512
+ * checks) against JwtTokenProvider.validateAndGetClaims with the key and
+ * parser built once.
+ *
+ * Run from main/:
+ *   mvn -q -Pjmh compile
+ *   java -cp "target/classes:$(mvn -q -Pjmh dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *       org.openjdk.jmh.Main JwtVerificationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "greenroots-super-secret-key-change-in-production-min-256-bits-long";
+    private static final String SUBJECT = "customer@example.com";
+
+    private String token;
+    private JwtTokenProvider provider;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = Jwts.builder()
+                .subject(SUBJECT)
+                .claim(JwtTokenProvider.CLAIM_USER_ID, 52_117L)
+                .claim(JwtTokenProvider.CLAIM_ROLE, "USER")
+                .claim(JwtTokenProvider.CLAIM_ACTIVE, true)
+                .claim(JwtTokenProvider.CLAIM_TOKEN_VERSION, 0)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 86_400_000L))
+                .signWith(key, Jwts.SIG.HS512)
+                .compact();
+
+        provider = new JwtTokenProvider();
+        setField(provider, "jwtSecret", SECRET);
+        setField(provider, "jwtExpiration", 86_400_000L);
+        provider.init();
+
+        if (!SUBJECT.equals(doubleParse()) || !SUBJECT.equals(singleParse())) {
+            throw new IllegalStateException("Benchmark token did not verify");
+        }
+    }
+
+    @Benchmark
+    public String doubleParse() {
+        return oldValidateToken(token) ? oldGetUsernameFromToken(token) : null;
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return provider.validateAndGetClaims(token).map(Claims::getSubject).orElse(null);
+    }
+
+    // The provider as it was before: a fresh key and parser on every call
+    private static Claims oldGetClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static boolean oldValidateToken(String token) {
+        try {
+            oldGetClaims(token);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String oldGetUsernameFromToken(String token) {
+        return oldGetClaims(token).getSubject();
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,127 @@
+package com.greenroots.benchmarks;
+
+import com.greenroots.dto.plant.PlantDTO;
+import com.greenroots.entity.Plant;
+import com.greenroots.search.PlantSearchIndex;
+import com.greenroots.search.PlantSearchQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of typical catalog searches, a single upsert and a full load of the
+ * in-memory index, for a synthetic catalog of 50,000 plants.
+ *
+ * Run from main/ as described in the README (Micro-benchmarks):
+ *   java -cp "..." org.openjdk.jmh.Main PlantSearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PlantSearchBenchmark {
+
+    private static final int PLANTS = 50_000;
+    private static final String[] WORDS = {"fern", "palm", "ivy", "fig", "lily", "rose", "basil", "mint",
+            "cactus", "aloe", "maple", "oak", "orchid", "jade", "snake", "spider", "peace", "golden", "dwarf", "giant"};
+
+    private final Random random = new Random(42);
+    private List<Plant> plants;
+    private PlantSearchIndex index;
+    private Plant changed;
+
+    @Setup
+    public void setUp() {
+        plants = new ArrayList<>(PLANTS);
+        for (long id = 1; id <= PLANTS; id++) {
+            plants.add(Plant.builder()
+                    .id(id)
+                    .name(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id)
+                    .scientificName("Species " + WORDS[random.nextInt(WORDS.length)])
+                    .category(pick(Plant.Category.values()))
+                    .lightRequirement(pick(Plant.LightRequirement.values()))
+                    .waterRequirement(pick(Plant.WaterRequirement.values()))
+                    .price(BigDecimal.valueOf(random.nextInt(20_000), 2))
+                    .active(true)
+                    .build());
+        }
+        index = load();
+        changed = plants.get(PLANTS / 2);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public PlantSearchIndex fullLoad() {
+        return load();
+    }
+
+    @Benchmark
+    public PlantSearchIndex upsert() {
+        changed.setPrice(BigDecimal.valueOf(random.nextInt(20_000), 2));
+        index.upsert(changed, PlantDTO.builder().id(changed.getId()).name(changed.getName()).build());
+        return index;
+    }
+
+    @Benchmark
+    public PlantSearchIndex.Result category() {
+        return index.search(query(Plant.Category.INDOOR, null, null, null, null), 0, 50);
+    }
+
+    @Benchmark
+    public PlantSearchIndex.Result categoryLightWater() {
+        return index.search(query(Plant.Category.INDOOR, Plant.LightRequirement.values()[0],
+                Plant.WaterRequirement.values()[0], null, null), 0, 50);
+    }
+
+    @Benchmark
+    public PlantSearchIndex.Result priceRange() {
+        return index.search(query(null, null, null, new BigDecimal("20.00"), null), 0, 50);
+    }
+
+    @Benchmark
+    public PlantSearchIndex.Result priceRangeText() {
+        return index.search(query(null, null, null, new BigDecimal("20.00"), "fern"), 0, 50);
+    }
+
+    @Benchmark
+    public PlantSearchIndex.Result textPrefix() {
+        return index.search(query(null, null, null, null, "gold pal"), 0, 50);
+    }
+
+    @Benchmark
+    public PlantSearchIndex.Result allFilters() {
+        return index.search(query(Plant.Category.INDOOR, Plant.LightRequirement.values()[0],
+                Plant.WaterRequirement.values()[0], new BigDecimal("50.00"), "fern"), 0, 50);
+    }
+
+    private PlantSearchIndex load() {
+        PlantSearchIndex loaded = new PlantSearchIndex();
+        loaded.load(plants.stream(), plant -> PlantDTO.builder().id(plant.getId()).name(plant.getName()).build());
+        return loaded;
+    }
+
+    private static PlantSearchQuery query(Plant.Category category, Plant.LightRequirement light,
+                                          Plant.WaterRequirement water, BigDecimal maxPrice, String text) {
+        return new PlantSearchQuery(category, light, water, maxPrice == null ? null : BigDecimal.ONE, maxPrice, text);
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
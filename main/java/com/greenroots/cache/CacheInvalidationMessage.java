@@ -0,0 +1,8 @@
+package com.greenroots.cache;
+
+/**
+ * Broadcast on {@link CacheInvalidationPublisher#CHANNEL} whenever a node changes
+ * a two-tier cache entry. A null key means the whole cache was cleared.
+ */
+public record CacheInvalidationMessage(String nodeId, String cacheName, String key) {
+}
@@ -0,0 +1,46 @@
+package com.greenroots.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    public static final String CHANNEL = "cache:invalidation";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, null));
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | DataAccessException e) {
+            // Other nodes fall back to the L1 TTL for this entry
+            log.error("Failed to publish cache invalidation for {}::{}: {}",
+                    message.cacheName(), message.key(), e.getMessage());
+        }
+    }
+}
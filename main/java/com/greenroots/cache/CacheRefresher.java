@@ -0,0 +1,75 @@
+package com.greenroots.cache;
+
+import com.greenroots.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Replaces cache entries in place once the surrounding transaction commits,
+ * instead of evicting them. Readers keep getting the previous value until the
+ * new one is written, so an admin edit never turns into a burst of misses.
+ * Refreshes of the same entry that pile up are coalesced into one reload.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheRefresher {
+
+    private final CacheManager cacheManager;
+
+    private final ConcurrentMap<String, RefreshTask> pending = new ConcurrentHashMap<>();
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("cache-refresh-"));
+
+    public void putAfterCommit(String cacheName, Object key, Object value) {
+        TransactionUtils.afterCommit(() -> cache(cacheName).put(key, value));
+    }
+
+    public void refreshAfterCommit(String cacheName, Object key, Supplier<?> loader) {
+        TransactionUtils.afterCommit(() -> schedule(new RefreshTask(cacheName, key, loader)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void schedule(RefreshTask task) {
+        String taskKey = task.cacheName() + "::" + task.key();
+        if (pending.put(taskKey, task) == null) {
+            executor.execute(() -> run(pending.remove(taskKey)));
+        }
+    }
+
+    private void run(RefreshTask task) {
+        Cache cache = cache(task.cacheName());
+        try {
+            cache.put(task.key(), task.loader().get());
+        } catch (RuntimeException e) {
+            log.error("Cache refresh failed for {}::{}, evicting entry", task.cacheName(), task.key(), e);
+            cache.evict(task.key());
+        }
+    }
+
+    private Cache cache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Unknown cache: " + cacheName);
+        }
+        return cache;
+    }
+
+    private record RefreshTask(String cacheName, Object key, Supplier<?> loader) {
+    }
+}
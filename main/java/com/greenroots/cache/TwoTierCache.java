@@ -0,0 +1,174 @@
+package com.greenroots.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Near cache: a per-node in-memory L1 in front of the shared Redis L2.
+ * Writes go to both tiers and are broadcast so that other nodes drop their
+ * now-stale L1 entry. L1 keys are normalized to strings, the same form the
+ * key takes in Redis and in invalidation messages.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final Cache localCache;
+    private final Cache remoteCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> loadsInFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TwoTierCache(String name, Cache localCache, Cache remoteCache,
+            CacheInvalidationPublisher invalidationPublisher) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper value = localCache.get(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+
+        value = remoteCache.get(key);
+        if (value != null) {
+            remoteHits.increment();
+            localCache.put(localKey, value.get());
+            return value;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        return (T) stored;
+    }
+
+    /**
+     * Used by {@code @Cacheable(sync = true)}: concurrent misses on the same key
+     * on this node wait for a single load instead of each hitting the database.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = get(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loadsInFlight.putIfAbsent(localKey(key), load);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            T loaded = valueLoader.call();
+            put(key, loaded);
+            load.complete(loaded);
+            return loaded;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loadsInFlight.remove(localKey(key), load);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        localCache.put(localKey(key), value);
+        invalidationPublisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        localCache.evict(localKey(key));
+        invalidationPublisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.clear();
+        invalidationPublisher.publishClear(name);
+    }
+
+    void evictLocal(String key) {
+        localCache.evict(key);
+    }
+
+    void clearLocal() {
+        localCache.clear();
+    }
+
+    long getLocalHits() {
+        return localHits.sum();
+    }
+
+    long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    double getLocalHitRatio() {
+        long local = getLocalHits();
+        long total = local + getRemoteHits() + getMisses();
+        return total == 0 ? 0.0 : (double) local / total;
+    }
+
+    double getRemoteHitRatio() {
+        long remote = getRemoteHits();
+        long total = remote + getMisses();
+        return total == 0 ? 0.0 : (double) remote / total;
+    }
+
+    private String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,118 @@
+package com.greenroots.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Builds a {@link TwoTierCache} per cache name on top of the Redis cache manager
+ * and applies invalidations broadcast by other nodes to the local tier.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private final RedisCacheManager redisCacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localTtl;
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(RedisCacheManager redisCacheManager,
+            CacheInvalidationPublisher invalidationPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            long localMaximumSize,
+            Duration localTtl) {
+        this.redisCacheManager = redisCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localTtl = localTtl;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.error("Ignoring malformed cache invalidation message: {}", e.getMessage());
+            return;
+        }
+
+        if (invalidationPublisher.getNodeId().equals(invalidation.nodeId())) {
+            return;
+        }
+
+        TwoTierCache cache = caches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    private TwoTierCache createCache(String name) {
+        CaffeineCache localCache = new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .build());
+        Cache remoteCache = redisCacheManager.getCache(name);
+
+        TwoTierCache cache = new TwoTierCache(name, localCache, remoteCache, invalidationPublisher);
+
+        Gauge.builder("cache.tier.hit.ratio", cache, TwoTierCache::getLocalHitRatio)
+                .description("Share of all lookups answered by the in-memory tier")
+                .tags("cache", name, "tier", "l1")
+                .register(meterRegistry);
+        Gauge.builder("cache.tier.hit.ratio", cache, TwoTierCache::getRemoteHitRatio)
+                .description("Share of in-memory misses answered by Redis")
+                .tags("cache", name, "tier", "l2")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.tier.gets", cache, c -> c.getLocalHits())
+                .tags("cache", name, "result", "l1_hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.tier.gets", cache, c -> c.getRemoteHits())
+                .tags("cache", name, "result", "l2_hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.tier.gets", cache, c -> c.getMisses())
+                .tags("cache", name, "result", "miss")
+                .register(meterRegistry);
+
+        log.info("Created two-tier cache: {}", name);
+        return cache;
+    }
+}
@@ -1,17 +1,59 @@
 package com.greenroots.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
 
 @Configuration
+@EnableConfigurationProperties(KafkaProducerProfiles.class)
 public class KafkaConfig {
 
     public static final String ORDER_CREATED_TOPIC = "order.created";
     public static final String ORDER_CONFIRMED_TOPIC = "order.confirmed";
     public static final String PAYMENT_PROCESSED_TOPIC = "payment.processed";
 
+    public static final String BATCH_LISTENER_FACTORY = "batchListenerContainerFactory";
+
+    @Value("${app.kafka.consumer.retry-interval}")
+    private long retryInterval;
+
+    @Value("${app.kafka.consumer.retry-attempts}")
+    private long retryAttempts;
+
+    /**
+     * Batch listeners that acknowledge each delivered batch explicitly. A record
+     * that fails is reported by index: the records before it are committed, the
+     * rest is redelivered, and it is logged and skipped once retries run out.
+     * Concurrency is set per listener. Consumer threads are virtual when
+     * {@code spring.threads.virtual.enabled} is on.
+     */
+    @Bean(name = BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory, Environment environment) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(retryInterval, retryAttempts)));
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
+        return factory;
+    }
+
     @Bean
     public NewTopic orderCreatedTopic() {
         return TopicBuilder.name(ORDER_CREATED_TOPIC)
@@ -0,0 +1,50 @@
+package com.greenroots.config;
+
+import lombok.Data;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Named producer tunings and the topics that use them, e.g. a low-latency
+ * profile for events someone is waiting on and a high-throughput one for
+ * bursty topics. Topics without an entry use the default profile.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.kafka.producer")
+public class KafkaProducerProfiles {
+
+    private String defaultProfile;
+    private Map<String, Profile> profiles = new LinkedHashMap<>();
+    private Map<String, String> topics = new HashMap<>();
+
+    public String profileFor(String topic) {
+        return topics.getOrDefault(topic, defaultProfile);
+    }
+
+    @Data
+    public static class Profile {
+
+        private int lingerMs;
+        private int batchSize = 16384;
+        private String compressionType = "none";
+        private boolean idempotent = true;
+        private int maxInFlightRequests = 5;
+
+        public Map<String, Object> toProducerProperties() {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+            properties.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+            properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+            properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotent);
+            properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
+            if (idempotent) {
+                properties.put(ProducerConfig.ACKS_CONFIG, "all");
+            }
+            return properties;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.greenroots.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier while blocking,
+ * typically inside a {@code synchronized} block of a driver or client library.
+ * Listens to the JDK's {@code jdk.VirtualThreadPinned} flight recorder event
+ * in-process, counts each occurrence under the first application or library
+ * frame, and logs the full stack the first time a frame shows up.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.threads.pinning-threshold}")
+    private Duration threshold;
+
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+    private RecordingStream recording;
+
+    @PostConstruct
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        log.info("Watching for virtual threads pinned longer than {}", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String frame = culprit(event);
+        Counter.builder("jvm.threads.virtual.pinned")
+                .tag("frame", frame)
+                .register(meterRegistry)
+                .increment();
+
+        if (reportedFrames.add(frame)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n{}", event.getDuration().toMillis(), frame,
+                    stack(event));
+        }
+    }
+
+    /**
+     * The topmost frame outside the JDK, which is where the blocking call was
+     * made while the carrier was held.
+     */
+    private String culprit(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(this::describe)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse("jdk");
+    }
+
+    private String stack(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "    (no stack trace)";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .map(frame -> "    at " + describe(frame) + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
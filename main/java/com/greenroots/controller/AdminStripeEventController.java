@@ -0,0 +1,32 @@
+package com.greenroots.controller;
+
+import com.greenroots.exception.BadRequestException;
+import com.greenroots.service.StripeWebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/stripe-events")
+@RequiredArgsConstructor
+public class AdminStripeEventController {
+
+    private final StripeWebhookService stripeWebhookService;
+
+    @PostMapping("/replay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> replay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean includeProcessed) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+        return ResponseEntity.ok(Map.of("replayed", stripeWebhookService.replay(from, to, includeProcessed)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.greenroots.controller;
+
+import com.greenroots.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/users")
+@RequiredArgsConstructor
+public class AdminUserController {
+
+    private final AuthService authService;
+
+    @PostMapping("/{userId}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long userId) {
+        authService.revokeTokens(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{userId}/deactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deactivateUser(@PathVariable Long userId) {
+        authService.deactivateUser(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
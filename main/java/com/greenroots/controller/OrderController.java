@@ -1,17 +1,20 @@
 package com.greenroots.controller;
 
+import com.greenroots.dto.order.OrderPageResponse;
 import com.greenroots.dto.order.OrderRequest;
 import com.greenroots.dto.order.OrderResponse;
-import com.greenroots.entity.User;
+import com.greenroots.entity.Order;
+import com.greenroots.security.UserPrincipal;
 import com.greenroots.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/orders")
@@ -23,21 +26,27 @@ public class OrderController {
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
             @Valid @RequestBody OrderRequest request,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal UserPrincipal user) {
         OrderResponse response = orderService.createOrder(request, user.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getUserOrders(@AuthenticationPrincipal User user) {
-        List<OrderResponse> orders = orderService.getUserOrders(user.getId());
+    public ResponseEntity<OrderPageResponse> getUserOrders(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderPageResponse orders = orderService.searchOrders(user.getId(), status, from, to, cursor, size);
         return ResponseEntity.ok(orders);
     }
 
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderResponse> getOrderById(
             @PathVariable Long orderId,
-            @AuthenticationPrincipal User user) {
+            @AuthenticationPrincipal UserPrincipal user) {
         OrderResponse order = orderService.getOrderById(orderId, user.getId());
         return ResponseEntity.ok(order);
     }
@@ -1,16 +1,23 @@
 package com.greenroots.controller;
 
 import com.greenroots.dto.plant.PlantDTO;
+import com.greenroots.dto.plant.PlantPageResponse;
 import com.greenroots.dto.plant.PlantRequest;
+import com.greenroots.dto.plant.PlantSearchResponse;
 import com.greenroots.entity.Plant;
+import com.greenroots.search.PlantSearchQuery;
+import com.greenroots.service.PlantSearchService;
 import com.greenroots.service.PlantService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -19,6 +26,7 @@ import java.util.List;
 public class PlantController {
 
     private final PlantService plantService;
+    private final PlantSearchService plantSearchService;
 
     @GetMapping
     public ResponseEntity<List<PlantDTO>> getAllPlants() {
@@ -26,6 +34,38 @@ public class PlantController {
         return ResponseEntity.ok(plants);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PlantPageResponse> getPlantPage(
+            @RequestParam(required = false) Plant.Category category,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        PlantPageResponse plants = plantService.getPlantPage(category, cursor, size);
+        return ResponseEntity.ok(plants);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPlants(
+            @RequestParam(required = false) Plant.Category category) {
+        StreamingResponseBody body = out -> plantService.streamPlants(category, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<PlantSearchResponse> searchPlants(
+            @RequestParam(required = false) Plant.Category category,
+            @RequestParam(required = false) Plant.LightRequirement light,
+            @RequestParam(required = false) Plant.WaterRequirement water,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit) {
+        PlantSearchQuery query = new PlantSearchQuery(category, light, water, minPrice, maxPrice, q);
+        return ResponseEntity.ok(plantSearchService.search(query, offset, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PlantDTO> getPlantById(@PathVariable Long id) {
         PlantDTO plant = plantService.getPlantById(id);
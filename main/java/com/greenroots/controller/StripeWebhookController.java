@@ -1,6 +1,6 @@
 package com.greenroots.controller;
 
-import com.greenroots.service.PaymentService;
+import com.greenroots.service.StripeWebhookService;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
@@ -17,11 +17,15 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class StripeWebhookController {
 
-    private final PaymentService paymentService;
+    private final StripeWebhookService stripeWebhookService;
 
     @Value("${app.stripe.webhook-secret}")
     private String webhookSecret;
 
+    /**
+     * Verifies and stores the event, then acknowledges it. Payment updates are
+     * applied asynchronously by {@link StripeWebhookService}.
+     */
     @PostMapping("/webhook")
     public ResponseEntity<String> handleStripeWebhook(
             @RequestBody String payload,
@@ -36,28 +40,20 @@ public class StripeWebhookController {
             return ResponseEntity.badRequest().body("Invalid signature");
         }
 
-        switch (event.getType()) {
-            case "payment_intent.succeeded":
-                PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                        .getObject().orElse(null);
-                if (paymentIntent != null) {
-                    paymentService.handlePaymentSuccess(paymentIntent.getId());
-                }
-                break;
+        if (!stripeWebhookService.isHandled(event.getType())) {
+            log.info("Unhandled event type: {}", event.getType());
+            return ResponseEntity.ok("Webhook received");
+        }
 
-            case "payment_intent.payment_failed":
-                PaymentIntent failedIntent = (PaymentIntent) event.getDataObjectDeserializer()
-                        .getObject().orElse(null);
-                if (failedIntent != null) {
-                    String failureReason = failedIntent.getLastPaymentError() != null
-                            ? failedIntent.getLastPaymentError().getMessage()
-                            : "Unknown error";
-                    paymentService.handlePaymentFailure(failedIntent.getId(), failureReason);
-                }
-                break;
+        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
+                .getObject().orElse(null);
+        if (paymentIntent == null) {
+            log.warn("Stripe event {} has no readable payment intent", event.getId());
+            return ResponseEntity.ok("Webhook received");
+        }
 
-            default:
-                log.info("Unhandled event type: {}", event.getType());
+        if (!stripeWebhookService.receive(event, paymentIntent.getId(), payload)) {
+            log.info("Duplicate Stripe event ignored: {}", event.getId());
         }
 
         return ResponseEntity.ok("Webhook received");
@@ -0,0 +1,43 @@
+package com.greenroots.datasource;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads on the primary. For reads whose result is copied into long-lived
+ * state (Redis stock levels, cached catalog entries, the search index) right
+ * after a commit, where a lagging replica would leave that state stale until
+ * the next full refresh.
+ *
+ * Inside a read-write transaction the reads simply join it: it is already on
+ * the primary, and a second connection per caller could exhaust the primary
+ * pool under load (e.g. orders seeding cold stock levels). Otherwise they run
+ * in a new read-only transaction pinned to the primary.
+ */
+@Component
+public class PrimaryReads {
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager) {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T execute(Supplier<T> reads) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return reads.get();
+        }
+        return transactionTemplate.execute(status -> {
+            ReadWriteRoutingDataSource.requirePrimaryForCurrentTransaction();
+            return reads.get();
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package com.greenroots.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the
+ * primary. Falls back to the primary while the replica is unusable (lagging or
+ * down) and for transactions that asked for it to read their own writes.
+ *
+ * The decision is made when a connection is obtained, so this must sit behind
+ * a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction's read-only flag is only set after it begins.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final BooleanSupplier replicaUsable;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaUsable,
+                                      MeterRegistry meterRegistry) {
+        this.replicaUsable = replicaUsable;
+        this.primaryConnections = Counter.builder("db.routing.connections").tag("target", "primary")
+                .register(meterRegistry);
+        this.replicaConnections = Counter.builder("db.routing.connections").tag("target", "replica")
+                .register(meterRegistry);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Keeps the current transaction on the primary even if it is read-only.
+     * Has to be called before the transaction's first query.
+     */
+    public static void requirePrimaryForCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        // A transaction started inside another (REQUIRES_NEW) restores the outer one's flag when it ends
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (previous == null) {
+                    PRIMARY_REQUIRED.remove();
+                } else {
+                    PRIMARY_REQUIRED.set(previous);
+                }
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replica = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && PRIMARY_REQUIRED.get() == null
+                && replicaUsable.getAsBoolean();
+        (replica ? replicaConnections : primaryConnections).increment();
+        return replica ? Target.REPLICA : Target.PRIMARY;
+    }
+}
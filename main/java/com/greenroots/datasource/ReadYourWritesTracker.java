@@ -0,0 +1,77 @@
+package com.greenroots.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.greenroots.util.TransactionUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users wrote recently so their reads can go to the primary
+ * instead of a replica that may not have the write yet (an order looked up
+ * right after it was placed). Writes are marked in Redis for
+ * {@code app.datasource.routing.read-your-writes-window}, so any node sees
+ * them; the window must be longer than the maximum tolerated replica lag.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReadYourWritesTracker {
+
+    private static final String RECENT_WRITE_KEY_PREFIX = "db:recent-write:user:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.datasource.routing.read-your-writes-window}")
+    private Duration window;
+
+    private Cache<Long, Boolean> localWrites;
+
+    @PostConstruct
+    public void init() {
+        localWrites = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void recordWriteAfterCommit(Long userId) {
+        TransactionUtils.afterCommit(() -> {
+            localWrites.put(userId, Boolean.TRUE);
+            try {
+                stringRedisTemplate.opsForValue().set(RECENT_WRITE_KEY_PREFIX + userId, "1", window);
+            } catch (DataAccessException e) {
+                log.warn("Failed to record recent write for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Routes the current read-only transaction to the primary if the user
+     * wrote within the window. Call it before the transaction's first query.
+     */
+    public void routeReadsFor(Long userId) {
+        if (recentlyWrote(userId)) {
+            ReadWriteRoutingDataSource.requirePrimaryForCurrentTransaction();
+        }
+    }
+
+    private boolean recentlyWrote(Long userId) {
+        if (localWrites.getIfPresent(userId) != null) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(RECENT_WRITE_KEY_PREFIX + userId));
+        } catch (DataAccessException e) {
+            // Cannot tell, so stay consistent
+            return true;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.greenroots.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Measures how far the replica is behind the primary. While the lag is above
+ * {@code app.datasource.routing.max-lag}, or the replica cannot be reached,
+ * read-only transactions are routed to the primary.
+ */
+@Component
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT)
+                   END""";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.datasource.routing.max-lag}")
+    private Duration maxLag;
+
+    private volatile Boolean postgres;
+    private volatile long lagMillis = -1;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                             MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-interval}")
+    public void checkLag() {
+        boolean wasUsable = replicaUsable;
+        try {
+            if (postgres == null) {
+                postgres = "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(
+                        replicaJdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName));
+            }
+            lagMillis = postgres ? postgresLag() : mysqlLag();
+            replicaUsable = lagMillis >= 0 && lagMillis <= maxLag.toMillis();
+        } catch (DataAccessException | MetaDataAccessException e) {
+            replicaUsable = false;
+            log.warn("Replica lag check failed, reading from primary: {}", e.getMessage());
+        }
+
+        if (wasUsable != replicaUsable) {
+            log.warn("Replica {} (lag {} ms, limit {} ms)", replicaUsable ? "in use" : "bypassed",
+                    lagMillis, maxLag.toMillis());
+        }
+    }
+
+    private long postgresLag() {
+        Long lag = replicaJdbcTemplate.queryForObject(POSTGRES_LAG_QUERY, Long.class);
+        return lag == null ? -1 : lag;
+    }
+
+    /**
+     * Seconds_Behind_Source is null while replication is stopped; a server
+     * that is not a replica at all (standing in for one) has no lag.
+     */
+    private long mysqlLag() {
+        List<Long> lag = replicaJdbcTemplate.query("SHOW REPLICA STATUS", (rs, row) -> {
+            long seconds = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? -1 : seconds * 1000;
+        });
+        return lag.isEmpty() ? 0 : lag.get(0);
+    }
+}
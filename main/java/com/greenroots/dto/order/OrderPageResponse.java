@@ -0,0 +1,17 @@
+package com.greenroots.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageResponse {
+    private List<OrderResponse> orders;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.greenroots.dto.order;
+
+import com.greenroots.entity.Order;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters and keyset position for an order history page. {@code userId} is
+ * null for back-office searches across all users; {@code from} is inclusive
+ * and {@code to} exclusive. The cursor fields name the last order of the
+ * previous page.
+ */
+public record OrderSearchCriteria(
+        Long userId,
+        Order.OrderStatus status,
+        LocalDateTime from,
+        LocalDateTime to,
+        LocalDateTime afterCreatedAt,
+        Long afterId,
+        int limit) {
+}
@@ -0,0 +1,17 @@
+package com.greenroots.dto.plant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlantPageResponse {
+    private List<PlantDTO> plants;
+    private Long nextCursor;
+}
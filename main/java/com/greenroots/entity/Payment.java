@@ -22,14 +22,15 @@ import java.time.LocalDateTime;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
-    @Column(nullable = false, unique = true)
+    @Column(unique = true)
     private String stripePaymentIntentId;
 
     @Column(nullable = false, precision = 10, scale = 2)
@@ -48,6 +49,13 @@ public class Payment {
     @Column(unique = true)
     private String idempotencyKey;
 
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column
+    private LocalDateTime nextAttemptAt;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class Plant {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "plants_seq")
+    @SequenceGenerator(name = "plants_seq", sequenceName = "plants_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
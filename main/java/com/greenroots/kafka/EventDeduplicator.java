@@ -0,0 +1,196 @@
+package com.greenroots.kafka;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers which event ids have been handled so redelivered events are
+ * skipped. Ids seen by this node are answered from a bounded local LRU. The
+ * rest of a batch is claimed in Redis in one round trip with a
+ * {@value #PROCESSING} marker, and each event is switched to {@value #DONE}
+ * for the full TTL once its handler succeeded. The marker lives as long as
+ * the consumer's max poll interval, after which the consumer would lose its
+ * partitions anyway; if the node dies mid-batch the marker expires and the
+ * redelivered events are handled again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventDeduplicator {
+
+    private static final String KEY_PREFIX = "event:processed:";
+    private static final String PROCESSING = "processing";
+    private static final String DONE = "done";
+    private static final long IN_PROGRESS_POLL_MILLIS = 200;
+
+    // ARGV[1]: processing TTL (ms). Per key: 1 if claimed, 0 if already done,
+    // -1 if another consumer is handling it right now
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CLAIM_ALL = new DefaultRedisScript<>(
+            "local result = {} "
+                    + "for i = 1, #KEYS do "
+                    + "if redis.call('SET', KEYS[i], '" + PROCESSING + "', 'NX', 'PX', ARGV[1]) then result[i] = 1 "
+                    + "elseif redis.call('GET', KEYS[i]) == '" + DONE + "' then result[i] = 0 "
+                    + "else result[i] = -1 end "
+                    + "end "
+                    + "return result",
+            List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.kafka.consumer.dedup.ttl}")
+    private Duration ttl;
+
+    @Value("${app.kafka.consumer.dedup.processing-ttl}")
+    private Duration processingTtl;
+
+    @Value("${app.kafka.consumer.dedup.local-size}")
+    private long localSize;
+
+    private Cache<String, Boolean> processed;
+
+    public enum Claim {
+        CLAIMED, DUPLICATE, IN_PROGRESS
+    }
+
+    @PostConstruct
+    public void init() {
+        processed = Caffeine.newBuilder()
+                .maximumSize(localSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Claims a batch of events before they are handled, one result per id in
+     * the same order. Ids in the local LRU cost no network hop; the others
+     * are claimed with a single script call. If Redis is unavailable the
+     * events are claimed, so they are delivered at least once rather than
+     * dropped.
+     */
+    public List<Claim> claimAll(List<String> eventIds) {
+        List<Claim> claims = new ArrayList<>(eventIds.size());
+        List<String> keys = new ArrayList<>();
+        for (String eventId : eventIds) {
+            boolean known = processed.getIfPresent(eventId) != null;
+            claims.add(known ? Claim.DUPLICATE : null);
+            if (!known) {
+                keys.add(key(eventId));
+            }
+        }
+        if (keys.isEmpty()) {
+            return claims;
+        }
+
+        List<?> results;
+        try {
+            results = stringRedisTemplate.execute(CLAIM_ALL, keys, String.valueOf(processingTtl.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for event deduplication, processing {} events unchecked: {}",
+                    keys.size(), e.getMessage());
+            results = null;
+        }
+
+        int next = 0;
+        for (int i = 0; i < claims.size(); i++) {
+            if (claims.get(i) != null) {
+                continue;
+            }
+            long result = results == null ? 1 : ((Number) results.get(next++)).longValue();
+            if (result == 0) {
+                processed.put(eventIds.get(i), Boolean.TRUE);
+            }
+            claims.set(i, result > 0 ? Claim.CLAIMED : result == 0 ? Claim.DUPLICATE : Claim.IN_PROGRESS);
+        }
+        return claims;
+    }
+
+    /**
+     * Waits for an event that another consumer is handling (e.g. the previous
+     * owner of a rebalanced partition) until that one finishes or its claim
+     * expires. Returns true if the event is now claimed, false if it was
+     * handled meanwhile.
+     */
+    public boolean awaitClaim(String eventId) {
+        long deadline = System.nanoTime() + processingTtl.toNanos();
+        try {
+            while (true) {
+                if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(key(eventId), PROCESSING,
+                        processingTtl))) {
+                    return true;
+                }
+                String state = stringRedisTemplate.opsForValue().get(key(eventId));
+                if (DONE.equals(state)) {
+                    processed.put(eventId, Boolean.TRUE);
+                    return false;
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Event " + eventId + " is still being processed elsewhere");
+                }
+                if (state != null) {
+                    sleep();
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for event deduplication, processing {} unchecked: {}", eventId, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Records a successfully handled event for the full TTL.
+     */
+    public void markProcessed(String eventId) {
+        processed.put(eventId, Boolean.TRUE);
+        try {
+            stringRedisTemplate.opsForValue().set(key(eventId), DONE, ttl);
+        } catch (DataAccessException e) {
+            log.error("Failed to record event {} as processed, a redelivery would run again: {}",
+                    eventId, e.getMessage());
+        }
+    }
+
+    /**
+     * Gives up the claims of events that were not handled (the failed one and
+     * the rest of its batch), so their redelivery is processed right away.
+     */
+    public void release(Collection<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.delete(eventIds.stream().map(this::key).collect(Collectors.toList()));
+        } catch (DataAccessException e) {
+            log.warn("Failed to release claims for {} events, their redelivery waits for the claims to expire: {}",
+                    eventIds.size(), e.getMessage());
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(IN_PROGRESS_POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-progress event", e);
+        }
+    }
+
+    private String key(String eventId) {
+        return KEY_PREFIX + eventId;
+    }
+}
@@ -0,0 +1,68 @@
+package com.greenroots.kafka;
+
+import com.greenroots.config.KafkaProducerProfiles;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One producer per configured profile, layered over the shared
+ * {@code spring.kafka.producer} settings, and the lookup from topic to the
+ * producer of its profile.
+ */
+@Component
+@Slf4j
+public class KafkaProducerRouter {
+
+    private final KafkaProducerProfiles producerProfiles;
+    private final Map<String, DefaultKafkaProducerFactory<String, byte[]>> factories = new HashMap<>();
+    private final Map<String, KafkaTemplate<String, byte[]>> templates = new HashMap<>();
+
+    public KafkaProducerRouter(KafkaProperties kafkaProperties, KafkaProducerProfiles producerProfiles,
+                               MeterRegistry meterRegistry) {
+        this.producerProfiles = producerProfiles;
+
+        producerProfiles.getProfiles().forEach((name, profile) -> {
+            Map<String, Object> properties = new HashMap<>(kafkaProperties.buildProducerProperties(null));
+            properties.putAll(profile.toProducerProperties());
+
+            DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(properties);
+            factory.addListener(new MicrometerProducerListener<>(meterRegistry, List.of(Tag.of("profile", name))));
+            factories.put(name, factory);
+            templates.put(name, new KafkaTemplate<>(factory));
+            log.info("Kafka producer profile {}: {}", name, profile);
+        });
+
+        validate(producerProfiles.getDefaultProfile(), "default");
+        producerProfiles.getTopics().forEach((topic, profile) -> validate(profile, topic));
+    }
+
+    public KafkaTemplate<String, byte[]> forTopic(String topic) {
+        return templates.get(producerProfiles.profileFor(topic));
+    }
+
+    public void flush() {
+        templates.values().forEach(KafkaTemplate::flush);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        factories.values().forEach(DefaultKafkaProducerFactory::destroy);
+    }
+
+    private void validate(String profile, String usedBy) {
+        if (!templates.containsKey(profile)) {
+            throw new IllegalStateException("Unknown Kafka producer profile '" + profile + "' for " + usedBy);
+        }
+    }
+}
@@ -1,47 +1,148 @@
 package com.greenroots.kafka;
 
 import com.greenroots.config.KafkaConfig;
+import com.greenroots.kafka.event.AvroEvent;
+import com.greenroots.kafka.event.EventSerde;
+import com.greenroots.kafka.event.OrderConfirmedEvent;
+import com.greenroots.kafka.event.OrderCreatedEvent;
+import com.greenroots.kafka.event.PaymentProcessedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class OrderEventConsumer {
 
-    @KafkaListener(topics = KafkaConfig.ORDER_CREATED_TOPIC, groupId = "${spring.kafka.consumer.group-id}")
-    public void handleOrderCreated(
-            @Payload Map<String, Object> event,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key) {
-        log.info("Received order created event: {}", event);
+    private final EventSerde eventSerde;
+    private final EventDeduplicator eventDeduplicator;
+    private final MeterRegistry meterRegistry;
 
-        String orderNumber = (String) event.get("orderNumber");
-        log.info("Processing order created: {}", orderNumber);
+    private final Map<TopicPartition, Counter> recordCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> duplicateCounters = new ConcurrentHashMap<>();
+
+    @KafkaListener(topics = KafkaConfig.ORDER_CREATED_TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_FACTORY,
+            concurrency = "${app.kafka.consumer.concurrency.order-created}")
+    public void handleOrderCreated(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        consume(records, ack, OrderCreatedEvent::fromRecord, event ->
+                log.info("Processing order created: {}", event.orderNumber()));
+    }
+
+    @KafkaListener(topics = KafkaConfig.ORDER_CONFIRMED_TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_FACTORY,
+            concurrency = "${app.kafka.consumer.concurrency.order-confirmed}")
+    public void handleOrderConfirmed(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        consume(records, ack, OrderConfirmedEvent::fromRecord, event ->
+                log.info("Processing order confirmation: {}", event.orderNumber()));
     }
 
-    @KafkaListener(topics = KafkaConfig.ORDER_CONFIRMED_TOPIC, groupId = "${spring.kafka.consumer.group-id}")
-    public void handleOrderConfirmed(
-            @Payload Map<String, Object> event,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key) {
-        log.info("Received order confirmed event: {}", event);
+    @KafkaListener(topics = KafkaConfig.PAYMENT_PROCESSED_TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = KafkaConfig.BATCH_LISTENER_FACTORY,
+            concurrency = "${app.kafka.consumer.concurrency.payment-processed}")
+    public void handlePaymentProcessed(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        consume(records, ack, PaymentProcessedEvent::fromRecord, event ->
+                log.info("Processing payment for order: {} - Status: {}", event.orderNumber(), event.status()));
+    }
+
+    /**
+     * Decodes a batch, handles it in offset order skipping events that were
+     * already handled, and acknowledges the batch. The whole batch is claimed
+     * in one Redis call before the first handler runs, and each event is
+     * marked processed right after its handler, so an event is never skipped
+     * unless it was actually handled. A failure is reported with the index of
+     * the failed record so the container commits everything before it and
+     * redelivers from there; the claims from that record on are released first.
+     */
+    private <T extends AvroEvent> void consume(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack,
+                                               Function<GenericRecord, T> decoder, Consumer<T> handler) {
+        List<T> events = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            try {
+                events.add(decoder.apply(eventSerde.deserialize(record.topic(), record.value())));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Failed to decode " + describe(record), e, i);
+            }
+        }
+
+        List<String> eventIds = events.stream().map(AvroEvent::eventId).collect(Collectors.toList());
+        List<EventDeduplicator.Claim> claims = new ArrayList<>(eventDeduplicator.claimAll(eventIds));
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            T event = events.get(i);
+            if (claims.get(i) == EventDeduplicator.Claim.IN_PROGRESS) {
+                try {
+                    claims.set(i, eventDeduplicator.awaitClaim(event.eventId())
+                            ? EventDeduplicator.Claim.CLAIMED : EventDeduplicator.Claim.DUPLICATE);
+                } catch (RuntimeException e) {
+                    eventDeduplicator.release(claimedFrom(eventIds, claims, i + 1));
+                    throw new BatchListenerFailedException("Failed to claim " + describe(record), e, i);
+                }
+            }
+            if (claims.get(i) == EventDeduplicator.Claim.DUPLICATE) {
+                log.debug("Skipping duplicate event {} at {}", event.eventId(), describe(record));
+                duplicateCounter(record.topic()).increment();
+                continue;
+            }
 
-        String orderNumber = (String) event.get("orderNumber");
-        log.info("Processing order confirmation: {}", orderNumber);
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                eventDeduplicator.release(claimedFrom(eventIds, claims, i));
+                throw new BatchListenerFailedException("Failed to process " + describe(record), e, i);
+            }
+            eventDeduplicator.markProcessed(event.eventId());
+            recordCounter(record).increment();
+        }
+        ack.acknowledge();
+        log.debug("Acknowledged batch of {} records", records.size());
     }
 
-    @KafkaListener(topics = KafkaConfig.PAYMENT_PROCESSED_TOPIC, groupId = "${spring.kafka.consumer.group-id}")
-    public void handlePaymentProcessed(
-            @Payload Map<String, Object> event,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key) {
-        log.info("Received payment processed event: {}", event);
+    private List<String> claimedFrom(List<String> eventIds, List<EventDeduplicator.Claim> claims, int from) {
+        List<String> claimed = new ArrayList<>();
+        for (int i = from; i < eventIds.size(); i++) {
+            if (claims.get(i) == EventDeduplicator.Claim.CLAIMED) {
+                claimed.add(eventIds.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    private String describe(ConsumerRecord<String, byte[]> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    private Counter duplicateCounter(String topic) {
+        return duplicateCounters.computeIfAbsent(topic, name -> Counter.builder("kafka.listener.duplicates")
+                .description("Redelivered events skipped by event listeners")
+                .tag("topic", name)
+                .register(meterRegistry));
+    }
 
-        String orderNumber = (String) event.get("orderNumber");
-        String status = (String) event.get("status");
-        log.info("Processing payment for order: {} - Status: {}", orderNumber, status);
+    private Counter recordCounter(ConsumerRecord<String, byte[]> record) {
+        return recordCounters.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                partition -> Counter.builder("kafka.listener.records")
+                        .description("Records processed by event listeners")
+                        .tag("topic", partition.topic())
+                        .tag("partition", String.valueOf(partition.partition()))
+                        .register(meterRegistry));
     }
 }
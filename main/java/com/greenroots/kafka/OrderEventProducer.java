@@ -2,42 +2,46 @@ package com.greenroots.kafka;
 
 import com.greenroots.config.KafkaConfig;
 import com.greenroots.entity.Order;
+import com.greenroots.kafka.event.OrderConfirmedEvent;
+import com.greenroots.kafka.event.OrderCreatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
     public void sendOrderCreatedEvent(Order order) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("orderId", order.getId());
-        event.put("orderNumber", order.getOrderNumber());
-        event.put("userId", order.getUser().getId());
-        event.put("totalAmount", order.getTotalAmount());
-        event.put("status", order.getStatus().name());
-        event.put("timestamp", System.currentTimeMillis());
-
-        kafkaTemplate.send(KafkaConfig.ORDER_CREATED_TOPIC, order.getOrderNumber(), event);
-        log.info("Order created event sent: {}", order.getOrderNumber());
+        OrderCreatedEvent event = new OrderCreatedEvent(
+                UUID.randomUUID().toString(),
+                order.getId(),
+                order.getOrderNumber(),
+                order.getUser().getId(),
+                order.getTotalAmount(),
+                order.getPayment() != null ? order.getPayment().getCurrency() : "usd",
+                order.getOrderItems().size(),
+                order.getStatus().name(),
+                System.currentTimeMillis());
+
+        outboxWriter.enqueue(KafkaConfig.ORDER_CREATED_TOPIC, order.getOrderNumber(), event);
+        log.info("Order created event queued: {}", order.getOrderNumber());
     }
 
     public void sendOrderConfirmedEvent(Order order) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("orderId", order.getId());
-        event.put("orderNumber", order.getOrderNumber());
-        event.put("status", order.getStatus().name());
-        event.put("timestamp", System.currentTimeMillis());
-
-        kafkaTemplate.send(KafkaConfig.ORDER_CONFIRMED_TOPIC, order.getOrderNumber(), event);
-        log.info("Order confirmed event sent: {}", order.getOrderNumber());
+        OrderConfirmedEvent event = new OrderConfirmedEvent(
+                UUID.randomUUID().toString(),
+                order.getId(),
+                order.getOrderNumber(),
+                order.getStatus().name(),
+                System.currentTimeMillis());
+
+        outboxWriter.enqueue(KafkaConfig.ORDER_CONFIRMED_TOPIC, order.getOrderNumber(), event);
+        log.info("Order confirmed event queued: {}", order.getOrderNumber());
     }
 }
@@ -0,0 +1,132 @@
+package com.greenroots.kafka;
+
+import com.greenroots.entity.OutboxEvent;
+import com.greenroots.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes committed outbox rows to Kafka in batches. Rows are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, so several instances can relay in parallel
+ * without sending the same row twice, and are deleted once the broker has
+ * acknowledged them. Rows that fail stay for the next run. A batch holds at
+ * most the earliest remaining row of each message key, so neither a parallel
+ * relay nor a failed send can let a later event for the key overtake it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final KafkaProducerRouter producerRouter;
+
+    @Value("${app.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${app.outbox.send-timeout}")
+    private long sendTimeout;
+
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    private Counter publishedCounter;
+    private Counter failedCounter;
+    private Timer batchTimer;
+
+    @PostConstruct
+    public void init() {
+        publishedCounter = Counter.builder("outbox.relay.published")
+                .description("Outbox events published to Kafka")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("outbox.relay.failed")
+                .description("Outbox events that failed to publish and were left for retry")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to claim, publish and delete one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", oldestPendingMillis, this::lagSeconds)
+                .description("Age in seconds of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval}")
+    public void relay() {
+        int published;
+        do {
+            published = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+        } while (published >= batchSize);
+
+        oldestPendingMillis.set(outboxEventRepository.findOldestCreatedAt()
+                .map(createdAt -> createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(0L));
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, CompletableFuture<SendResult<String, byte[]>>> sends = new LinkedHashMap<>();
+        batch.forEach(event -> sends.put(event.getId(), producerRouter.forTopic(event.getTopic())
+                .send(event.getTopic(), event.getMessageKey(), event.getPayload())));
+        producerRouter.flush();
+
+        List<Long> published = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+        for (Map.Entry<Long, CompletableFuture<SendResult<String, byte[]>>> send : sends.entrySet()) {
+            try {
+                send.getValue().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                published.add(send.getKey());
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event {} not published, will retry: {}", send.getKey(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(published);
+        publishedCounter.increment(published.size());
+        failedCounter.increment(batch.size() - published.size());
+        if (published.size() < batch.size()) {
+            // Stop draining until the next run instead of spinning on a broker outage
+            return 0;
+        }
+        return published.size();
+    }
+
+    private double lagSeconds(AtomicLong oldest) {
+        long oldestMillis = oldest.get();
+        if (oldestMillis == 0) {
+            return 0;
+        }
+        return Duration.ofMillis(System.currentTimeMillis() - oldestMillis).toMillis() / 1000.0;
+    }
+}
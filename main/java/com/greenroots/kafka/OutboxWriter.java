@@ -0,0 +1,33 @@
+package com.greenroots.kafka;
+
+import com.greenroots.entity.OutboxEvent;
+import com.greenroots.kafka.event.AvroEvent;
+import com.greenroots.kafka.event.EventSerde;
+import com.greenroots.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records Kafka events in the outbox table as part of the caller's
+ * transaction. {@link OutboxRelay} publishes them once committed, so a rolled
+ * back transaction never emits an event and request threads never wait on the
+ * broker.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventSerde eventSerde;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, AvroEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .payload(eventSerde.serialize(topic, event))
+                .build());
+    }
+}
@@ -2,32 +2,32 @@ package com.greenroots.kafka;
 
 import com.greenroots.config.KafkaConfig;
 import com.greenroots.entity.Payment;
+import com.greenroots.kafka.event.PaymentProcessedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentEventProducer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
     public void sendPaymentProcessedEvent(Payment payment) {
-        Map<String, Object> event = new HashMap<>();
-        event.put("paymentId", payment.getId());
-        event.put("orderId", payment.getOrder().getId());
-        event.put("orderNumber", payment.getOrder().getOrderNumber());
-        event.put("stripePaymentIntentId", payment.getStripePaymentIntentId());
-        event.put("amount", payment.getAmount());
-        event.put("status", payment.getStatus().name());
-        event.put("timestamp", System.currentTimeMillis());
+        PaymentProcessedEvent event = new PaymentProcessedEvent(
+                UUID.randomUUID().toString(),
+                payment.getId(),
+                payment.getOrder().getId(),
+                payment.getOrder().getOrderNumber(),
+                payment.getStripePaymentIntentId(),
+                payment.getAmount(),
+                payment.getStatus().name(),
+                System.currentTimeMillis());
 
-        kafkaTemplate.send(KafkaConfig.PAYMENT_PROCESSED_TOPIC, payment.getStripePaymentIntentId(), event);
-        log.info("Payment processed event sent: {}", payment.getStripePaymentIntentId());
+        outboxWriter.enqueue(KafkaConfig.PAYMENT_PROCESSED_TOPIC, payment.getStripePaymentIntentId(), event);
+        log.info("Payment processed event queued: {}", payment.getStripePaymentIntentId());
     }
 }
@@ -0,0 +1,15 @@
+package com.greenroots.kafka.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+/**
+ * A typed Kafka event that can be written with the latest registered schema of
+ * its topic.
+ */
+public interface AvroEvent {
+
+    String eventId();
+
+    GenericRecord toRecord(Schema schema);
+}
@@ -0,0 +1,84 @@
+package com.greenroots.kafka.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * File-based stand-in for a schema registry. Schemas live on the classpath as
+ * {@code avro/{subject}-v{version}.avsc}, where the subject is the topic name.
+ * Every version must be able to read data written with the previous one, which
+ * is checked at startup.
+ */
+@Component
+public class EventSchemaRegistry {
+
+    private static final String SCHEMA_LOCATION = "classpath*:avro/*.avsc";
+    private static final Pattern FILE_NAME = Pattern.compile("(.+)-v(\\d+)\\.avsc");
+
+    private final Map<String, NavigableMap<Integer, Schema>> subjects = new HashMap<>();
+
+    public EventSchemaRegistry() {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(SCHEMA_LOCATION)) {
+                register(resource);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load event schemas", e);
+        }
+        subjects.forEach(this::checkBackwardCompatible);
+    }
+
+    public Schema get(String subject, int version) {
+        Schema schema = versions(subject).get(version);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown schema version " + version + " for subject " + subject);
+        }
+        return schema;
+    }
+
+    public int latestVersion(String subject) {
+        return versions(subject).lastKey();
+    }
+
+    private NavigableMap<Integer, Schema> versions(String subject) {
+        NavigableMap<Integer, Schema> versions = subjects.get(subject);
+        if (versions == null) {
+            throw new IllegalArgumentException("No schemas registered for subject " + subject);
+        }
+        return versions;
+    }
+
+    private void register(Resource resource) throws IOException {
+        Matcher matcher = FILE_NAME.matcher(resource.getFilename());
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Schema file name must be {subject}-v{version}.avsc: " + resource.getFilename());
+        }
+        try (InputStream in = resource.getInputStream()) {
+            subjects.computeIfAbsent(matcher.group(1), subject -> new TreeMap<>())
+                    .put(Integer.parseInt(matcher.group(2)), new Schema.Parser().parse(in));
+        }
+    }
+
+    private void checkBackwardCompatible(String subject, NavigableMap<Integer, Schema> versions) {
+        versions.forEach((version, schema) -> {
+            Map.Entry<Integer, Schema> previous = versions.lowerEntry(version);
+            if (previous != null && SchemaCompatibility.checkReaderWriterCompatibility(schema, previous.getValue())
+                    .getType() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+                throw new IllegalStateException(subject + " v" + version + " cannot read v" + previous.getKey());
+            }
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package com.greenroots.kafka.event;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.avro.Conversions;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary event encoding: one magic byte, the 4-byte schema version the event
+ * was written with, then the Avro binary body. Readers resolve any older
+ * version against the latest schema of the subject.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventSerde {
+
+    private static final byte MAGIC_BYTE = 0x0;
+    private static final int HEADER_LENGTH = 5;
+
+    private static final GenericData MODEL = new GenericData();
+
+    static {
+        MODEL.addLogicalTypeConversion(new Conversions.DecimalConversion());
+    }
+
+    private final EventSchemaRegistry schemaRegistry;
+
+    private final Map<String, SubjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, GenericDatumReader<GenericRecord>>> readers = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    public byte[] serialize(String subject, AvroEvent event) {
+        SubjectWriter writer = writers.computeIfAbsent(subject, this::createWriter);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(MAGIC_BYTE);
+        out.write(writer.header(), 0, 4);
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, encoders.get());
+            encoders.set(encoder);
+            writer.datumWriter().write(event.toRecord(writer.schema()), encoder);
+            encoder.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize " + subject + " event", e);
+        }
+        return out.toByteArray();
+    }
+
+    public GenericRecord deserialize(String subject, byte[] payload) {
+        if (payload.length < HEADER_LENGTH || payload[0] != MAGIC_BYTE) {
+            throw new IllegalArgumentException("Not an encoded " + subject + " event");
+        }
+        int version = ByteBuffer.wrap(payload, 1, 4).getInt();
+        GenericDatumReader<GenericRecord> reader = readers.computeIfAbsent(subject, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(version, key -> new GenericDatumReader<>(schemaRegistry.get(subject, version),
+                        schemaRegistry.get(subject, schemaRegistry.latestVersion(subject)), MODEL));
+
+        try {
+            BinaryDecoder decoder = DecoderFactory.get()
+                    .binaryDecoder(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH, decoders.get());
+            decoders.set(decoder);
+            return reader.read(null, decoder);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not deserialize " + subject + " event", e);
+        }
+    }
+
+    private SubjectWriter createWriter(String subject) {
+        int version = schemaRegistry.latestVersion(subject);
+        Schema schema = schemaRegistry.get(subject, version);
+        return new SubjectWriter(schema, new GenericDatumWriter<>(schema, MODEL),
+                ByteBuffer.allocate(4).putInt(version).array());
+    }
+
+    private record SubjectWriter(Schema schema, GenericDatumWriter<GenericRecord> datumWriter, byte[] header) {
+    }
+}
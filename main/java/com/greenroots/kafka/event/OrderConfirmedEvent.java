@@ -0,0 +1,33 @@
+package com.greenroots.kafka.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+public record OrderConfirmedEvent(
+        String eventId,
+        long orderId,
+        String orderNumber,
+        String status,
+        long timestamp) implements AvroEvent {
+
+    @Override
+    public GenericRecord toRecord(Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("eventId", eventId);
+        record.put("orderId", orderId);
+        record.put("orderNumber", orderNumber);
+        record.put("status", status);
+        record.put("timestamp", timestamp);
+        return record;
+    }
+
+    public static OrderConfirmedEvent fromRecord(GenericRecord record) {
+        return new OrderConfirmedEvent(
+                record.get("eventId").toString(),
+                (Long) record.get("orderId"),
+                record.get("orderNumber").toString(),
+                record.get("status").toString(),
+                (Long) record.get("timestamp"));
+    }
+}
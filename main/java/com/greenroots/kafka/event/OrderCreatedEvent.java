@@ -0,0 +1,48 @@
+package com.greenroots.kafka.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record OrderCreatedEvent(
+        String eventId,
+        long orderId,
+        String orderNumber,
+        long userId,
+        BigDecimal totalAmount,
+        String currency,
+        int itemCount,
+        String status,
+        long timestamp) implements AvroEvent {
+
+    @Override
+    public GenericRecord toRecord(Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("eventId", eventId);
+        record.put("orderId", orderId);
+        record.put("orderNumber", orderNumber);
+        record.put("userId", userId);
+        record.put("totalAmount", totalAmount.setScale(2, RoundingMode.HALF_UP));
+        record.put("currency", currency);
+        record.put("itemCount", itemCount);
+        record.put("status", status);
+        record.put("timestamp", timestamp);
+        return record;
+    }
+
+    public static OrderCreatedEvent fromRecord(GenericRecord record) {
+        return new OrderCreatedEvent(
+                record.get("eventId").toString(),
+                (Long) record.get("orderId"),
+                record.get("orderNumber").toString(),
+                (Long) record.get("userId"),
+                (BigDecimal) record.get("totalAmount"),
+                record.get("currency").toString(),
+                (Integer) record.get("itemCount"),
+                record.get("status").toString(),
+                (Long) record.get("timestamp"));
+    }
+}
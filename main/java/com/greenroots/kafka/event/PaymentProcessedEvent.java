@@ -0,0 +1,46 @@
+package com.greenroots.kafka.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record PaymentProcessedEvent(
+        String eventId,
+        long paymentId,
+        long orderId,
+        String orderNumber,
+        String stripePaymentIntentId,
+        BigDecimal amount,
+        String status,
+        long timestamp) implements AvroEvent {
+
+    @Override
+    public GenericRecord toRecord(Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("eventId", eventId);
+        record.put("paymentId", paymentId);
+        record.put("orderId", orderId);
+        record.put("orderNumber", orderNumber);
+        record.put("stripePaymentIntentId", stripePaymentIntentId);
+        record.put("amount", amount.setScale(2, RoundingMode.HALF_UP));
+        record.put("status", status);
+        record.put("timestamp", timestamp);
+        return record;
+    }
+
+    public static PaymentProcessedEvent fromRecord(GenericRecord record) {
+        Object stripePaymentIntentId = record.get("stripePaymentIntentId");
+        return new PaymentProcessedEvent(
+                record.get("eventId").toString(),
+                (Long) record.get("paymentId"),
+                (Long) record.get("orderId"),
+                record.get("orderNumber").toString(),
+                stripePaymentIntentId == null ? null : stripePaymentIntentId.toString(),
+                (BigDecimal) record.get("amount"),
+                record.get("status").toString(),
+                (Long) record.get("timestamp"));
+    }
+}
@@ -1,17 +1,33 @@
 package com.greenroots.repository;
 
 import com.greenroots.entity.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
     Optional<Order> findByOrderNumber(String orderNumber);
 
     List<Order> findByUserId(Long userId);
 
-    List<Order> findByStatus(Order.OrderStatus status);
+    @Query("SELECT o.orderNumber FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<String> findOrderNumbersIn(@Param("orderNumbers") Collection<String> orderNumbers);
+
+    /**
+     * Orders with items, plants and payment loaded in one statement. Used for a
+     * page of ids from {@link #findOrderIds}, since a fetch join cannot be
+     * limited in SQL.
+     */
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.plant", "payment"})
+    List<Order> findWithDetailsByIdIn(Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.plant", "payment"})
+    Optional<Order> findWithDetailsById(Long id);
 }
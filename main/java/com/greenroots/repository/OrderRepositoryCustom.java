@@ -0,0 +1,14 @@
+package com.greenroots.repository;
+
+import com.greenroots.dto.order.OrderSearchCriteria;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Ids of the matching orders, newest first by {@code (created_at, id)},
+     * starting after the criteria's cursor.
+     */
+    List<Long> findOrderIds(OrderSearchCriteria criteria);
+}
@@ -0,0 +1,59 @@
+package com.greenroots.repository;
+
+import com.greenroots.dto.order.OrderSearchCriteria;
+import com.greenroots.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findOrderIds(OrderSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Order> order = query.from(Order.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.userId() != null) {
+            predicates.add(cb.equal(order.get("user").get("id"), criteria.userId()));
+        }
+        if (criteria.status() != null) {
+            predicates.add(cb.equal(order.get("status"), criteria.status()));
+        }
+        if (criteria.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(order.<LocalDateTime>get("createdAt"), criteria.from()));
+        }
+        if (criteria.to() != null) {
+            predicates.add(cb.lessThan(order.<LocalDateTime>get("createdAt"), criteria.to()));
+        }
+        if (criteria.afterCreatedAt() != null) {
+            // The redundant upper bound gives the planner an index range on created_at;
+            // the OR alone is only applied as a filter while walking the index
+            predicates.add(cb.lessThanOrEqualTo(order.<LocalDateTime>get("createdAt"), criteria.afterCreatedAt()));
+            predicates.add(cb.or(
+                    cb.lessThan(order.<LocalDateTime>get("createdAt"), criteria.afterCreatedAt()),
+                    cb.and(
+                            cb.equal(order.get("createdAt"), criteria.afterCreatedAt()),
+                            cb.lessThan(order.<Long>get("id"), criteria.afterId()))));
+        }
+
+        query.select(order.get("id"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(order.get("createdAt")), cb.desc(order.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(criteria.limit())
+                .getResultList();
+    }
+}
@@ -0,0 +1,29 @@
+package com.greenroots.repository;
+
+import com.greenroots.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Claims the oldest rows that are the earliest remaining row for their
+     * message key. A later row for a key is not eligible while an earlier one
+     * is still in the table, whether it is claimed by another relay or left
+     * behind by a failed send, so each key is published in order.
+     */
+    @Query(value = "SELECT * FROM outbox_events e WHERE e.message_key IS NULL OR NOT EXISTS (" +
+            "SELECT 1 FROM outbox_events o WHERE o.message_key = e.message_key AND o.id < e.id) " +
+            "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e")
+    Optional<LocalDateTime> findOldestCreatedAt();
+}
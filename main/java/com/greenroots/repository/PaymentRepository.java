@@ -2,8 +2,14 @@ package com.greenroots.repository;
 
 import com.greenroots.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,12 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByStripePaymentIntentId(String stripePaymentIntentId);
 
     Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+
+    @Query(value = "SELECT id FROM payments WHERE status = 'PENDING' AND stripe_payment_intent_id IS NULL " +
+            "AND next_attempt_at <= :now ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockIdsAwaitingPaymentIntent(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.nextAttemptAt = :until WHERE p.id IN :ids")
+    int deferNextAttempt(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
 }
@@ -1,30 +1,83 @@
 package com.greenroots.repository;
 
 import com.greenroots.entity.Plant;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PlantRepository extends JpaRepository<Plant, Long> {
+public interface PlantRepository extends JpaRepository<Plant, Long>, PlantRepositoryCustom {
+
+    int STREAM_FETCH_SIZE = 500;
 
     List<Plant> findByCategory(Plant.Category category);
 
     List<Plant> findByActiveTrue();
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT p FROM Plant p WHERE p.id = :id")
-    Optional<Plant> findByIdWithLock(@Param("id") Long id);
+    @Query("SELECT p FROM Plant p WHERE p.active = true AND (:category IS NULL OR p.category = :category) "
+            + "AND p.id > :afterId ORDER BY p.id")
+    List<Plant> findActivePage(@Param("category") Plant.Category category, @Param("afterId") Long afterId,
+                               Pageable pageable);
+
+    /**
+     * Active plants in id order, read from the driver {@link #STREAM_FETCH_SIZE}
+     * rows at a time. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Plant p WHERE p.active = true AND (:category IS NULL OR p.category = :category) ORDER BY p.id")
+    Stream<Plant> streamActive(@Param("category") Plant.Category category);
 
     @Query("SELECT p FROM Plant p WHERE p.category = :category AND p.active = true")
     List<Plant> findActivePlantsByCategory(@Param("category") Plant.Category category);
 
-    @Query("SELECT p FROM Plant p WHERE p.lightRequirement = :lightReq AND p.active = true")
-    List<Plant> findByLightRequirement(@Param("lightReq") Plant.LightRequirement lightRequirement);
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity FROM Plant p WHERE p.id IN :ids")
+    List<StockLevel> findStockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity FROM Plant p")
+    List<StockLevel> findAllStockLevels();
+
+    @Modifying
+    @Query("UPDATE Plant p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :id")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Plant p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Marks a stock write-back batch as applied, in the transaction that applies
+     * it, so a batch replayed after a crash can be recognised and is not
+     * applied twice.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stock_write_backs (batch_id, applied_at) VALUES (:batchId, :appliedAt)",
+            nativeQuery = true)
+    void recordStockWriteBack(@Param("batchId") String batchId, @Param("appliedAt") LocalDateTime appliedAt);
+
+    @Query(value = "SELECT COUNT(*) FROM stock_write_backs WHERE batch_id = :batchId", nativeQuery = true)
+    long countStockWriteBacks(@Param("batchId") String batchId);
+
+    @Modifying
+    @Query(value = "DELETE FROM stock_write_backs WHERE applied_at < :before", nativeQuery = true)
+    int deleteStockWriteBacksBefore(@Param("before") LocalDateTime before);
+
+    interface StockLevel {
+        Long getId();
+
+        Integer getStockQuantity();
+    }
 }
@@ -0,0 +1,18 @@
+package com.greenroots.repository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public interface PlantRepositoryCustom {
+
+    /**
+     * Takes the requested quantity off every active plant that has enough
+     * stock, without loading or locking the entities first. Returns the name
+     * and price of each plant that was decremented; a plant missing from the
+     * result was not touched. Callers roll back if anything is missing.
+     */
+    Map<Long, StockDecrement> decrementStockIfAvailable(Map<Long, Integer> quantities);
+
+    record StockDecrement(Long id, String name, BigDecimal price) {
+    }
+}
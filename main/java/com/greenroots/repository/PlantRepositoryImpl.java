@@ -0,0 +1,96 @@
+package com.greenroots.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Plain JDBC so the decrement is one conditional UPDATE per plant instead of
+ * a locked SELECT followed by a full-row entity update. Plants are passed in
+ * ascending id order so overlapping carts take their row locks in the same order.
+ */
+@RequiredArgsConstructor
+public class PlantRepositoryImpl implements PlantRepositoryCustom {
+
+    // One statement and one round trip for the whole cart; the join order of
+    // the UPDATE is up to the planner, so rows are locked in id order first
+    private static final String POSTGRES_DECREMENT =
+            "WITH c AS (SELECT * FROM unnest(?::bigint[], ?::integer[]) AS c(id, quantity)), "
+                    + "locked AS (SELECT p.id FROM plants p JOIN c ON c.id = p.id ORDER BY p.id FOR UPDATE OF p) "
+                    + "UPDATE plants p SET stock_quantity = p.stock_quantity - c.quantity "
+                    + "FROM c JOIN locked l ON l.id = c.id "
+                    + "WHERE p.id = c.id AND p.active AND p.stock_quantity >= c.quantity "
+                    + "RETURNING p.id, p.name, p.price";
+
+    // MySQL has no UPDATE ... RETURNING: one batch (rewritten into a single
+    // round trip by the driver), then the prices of the rows now locked by it
+    private static final String MYSQL_DECREMENT =
+            "UPDATE plants SET stock_quantity = stock_quantity - ? "
+                    + "WHERE id = ? AND active AND stock_quantity >= ?";
+
+    private static final String MYSQL_SELECT_DECREMENTED =
+            "SELECT id, name, price FROM plants WHERE id IN (:ids)";
+
+    private static final RowMapper<StockDecrement> STOCK_DECREMENT = (rs, row) ->
+            new StockDecrement(rs.getLong("id"), rs.getString("name"), rs.getBigDecimal("price"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Map<Long, StockDecrement> decrementStockIfAvailable(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        List<StockDecrement> decremented = isPostgres() ? decrementPostgres(sorted) : decrementMysql(sorted);
+        return decremented.stream().collect(Collectors.toMap(StockDecrement::id, Function.identity()));
+    }
+
+    private List<StockDecrement> decrementPostgres(Map<Long, Integer> quantities) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(POSTGRES_DECREMENT);
+            statement.setArray(1, connection.createArrayOf("bigint", quantities.keySet().toArray()));
+            statement.setArray(2, connection.createArrayOf("integer", quantities.values().toArray()));
+            return statement;
+        }, STOCK_DECREMENT);
+    }
+
+    private List<StockDecrement> decrementMysql(Map<Long, Integer> quantities) {
+        List<Long> plantIds = new ArrayList<>(quantities.keySet());
+        int[] updated = jdbcTemplate.batchUpdate(MYSQL_DECREMENT, plantIds.stream()
+                .map(plantId -> new Object[]{quantities.get(plantId), plantId, quantities.get(plantId)})
+                .collect(Collectors.toList()));
+
+        List<Long> decremented = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                decremented.add(plantIds.get(i));
+            }
+        }
+        if (decremented.isEmpty()) {
+            return List.of();
+        }
+        return new NamedParameterJdbcTemplate(jdbcTemplate)
+                .query(MYSQL_SELECT_DECREMENTED, Map.of("ids", decremented), STOCK_DECREMENT);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,43 @@
+package com.greenroots.repository;
+
+import com.greenroots.entity.StripeWebhookEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM StripeWebhookEvent e WHERE e.id = :id")
+    Optional<StripeWebhookEvent> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT e.id FROM StripeWebhookEvent e WHERE e.paymentIntentId = :paymentIntentId " +
+            "AND e.status = 'RECEIVED' ORDER BY e.id")
+    List<Long> findReceivedIdsByPaymentIntentId(@Param("paymentIntentId") String paymentIntentId);
+
+    @Query("SELECT DISTINCT e.paymentIntentId FROM StripeWebhookEvent e " +
+            "WHERE e.status = 'RECEIVED' AND e.receivedAt < :before")
+    List<String> findPaymentIntentIdsWithReceivedEvents(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.status = 'RECEIVED', e.attempts = 0, e.lastError = null, " +
+            "e.replayCount = e.replayCount + 1 WHERE e.receivedAt >= :from AND e.receivedAt < :to " +
+            "AND e.status IN :statuses")
+    int requeueReceivedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                               @Param("statuses") Collection<StripeWebhookEvent.Status> statuses);
+
+    @Query("SELECT DISTINCT e.paymentIntentId FROM StripeWebhookEvent e WHERE e.receivedAt >= :from " +
+            "AND e.receivedAt < :to AND e.status = 'RECEIVED'")
+    List<String> findPaymentIntentIdsReceivedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
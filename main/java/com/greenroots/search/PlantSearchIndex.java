@@ -0,0 +1,304 @@
+package com.greenroots.search;
+
+import com.greenroots.dto.plant.PlantDTO;
+import com.greenroots.entity.Plant;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over active plants. Every plant gets a slot, and
+ * each filterable value maps to the {@link BitSet} of slots that have it, so a
+ * query is a handful of bitwise ANDs. Prices are kept as a sorted array of
+ * cents for range lookups, and words of the name and scientific name in a
+ * sorted map for prefix lookups.
+ *
+ * Safe for concurrent use; updates take a write lock and searches a read lock.
+ */
+public class PlantSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet occupied = new BitSet();
+
+    private final Map<Plant.Category, BitSet> byCategory = new EnumMap<>(Plant.Category.class);
+    private final Map<Plant.LightRequirement, BitSet> byLight = new EnumMap<>(Plant.LightRequirement.class);
+    private final Map<Plant.WaterRequirement, BitSet> byWater = new EnumMap<>(Plant.WaterRequirement.class);
+    private final NavigableMap<String, BitSet> byToken = new TreeMap<>();
+
+    private long[] sortedPrices = new long[16];
+    private int[] sortedPriceSlots = new int[16];
+    private int priceCount;
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a plant. {@code document} is what searches return for it.
+     */
+    public void upsert(Plant plant, PlantDTO document) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(plant.getId());
+            int slot = add(plant, document);
+            insertPrice(entries.get(slot).priceCents(), slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds many plants at once, sorting the price array a single time at the
+     * end instead of shifting it on every insert.
+     */
+    public void load(Stream<Plant> plants, Function<Plant, PlantDTO> documents) {
+        lock.writeLock().lock();
+        try {
+            plants.forEach(plant -> {
+                removeSlot(plant.getId());
+                add(plant, documents.apply(plant));
+            });
+            sortPrices();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long plantId) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(plantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result search(PlantSearchQuery query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) occupied.clone();
+            if (query.category() != null) {
+                matches.and(byCategory.getOrDefault(query.category(), new BitSet()));
+            }
+            if (query.lightRequirement() != null) {
+                matches.and(byLight.getOrDefault(query.lightRequirement(), new BitSet()));
+            }
+            if (query.waterRequirement() != null) {
+                matches.and(byWater.getOrDefault(query.waterRequirement(), new BitSet()));
+            }
+            if (query.text() != null) {
+                for (String prefix : tokenize(query.text())) {
+                    matches.and(tokenPrefix(prefix));
+                }
+            }
+            if (query.minPrice() != null || query.maxPrice() != null) {
+                filterByPrice(matches, query.minPrice(), query.maxPrice());
+            }
+
+            List<PlantDTO> documents = new ArrayList<>(Math.min(limit, matches.cardinality()));
+            int skipped = 0;
+            for (int slot = matches.nextSetBit(0); slot >= 0 && documents.size() < limit;
+                 slot = matches.nextSetBit(slot + 1)) {
+                if (skipped++ >= offset) {
+                    documents.add(entries.get(slot).document());
+                }
+            }
+            return new Result(matches.cardinality(), documents);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int add(Plant plant, PlantDTO document) {
+        int slot = freeSlots.isEmpty() ? entries.size() : freeSlots.pop();
+        Entry entry = new Entry(plant.getId(), document, plant.getCategory(), plant.getLightRequirement(),
+                plant.getWaterRequirement(), toCents(plant.getPrice()),
+                tokenize(plant.getName() + " " + plant.getScientificName()));
+        if (slot == entries.size()) {
+            entries.add(entry);
+        } else {
+            entries.set(slot, entry);
+        }
+        slotsById.put(entry.id(), slot);
+        occupied.set(slot);
+
+        byCategory.computeIfAbsent(entry.category(), key -> new BitSet()).set(slot);
+        byLight.computeIfAbsent(entry.lightRequirement(), key -> new BitSet()).set(slot);
+        byWater.computeIfAbsent(entry.waterRequirement(), key -> new BitSet()).set(slot);
+        entry.tokens().forEach(token -> byToken.computeIfAbsent(token, key -> new BitSet()).set(slot));
+        return slot;
+    }
+
+    private void removeSlot(Long plantId) {
+        Integer slot = slotsById.remove(plantId);
+        if (slot == null) {
+            return;
+        }
+        Entry entry = entries.set(slot, null);
+        occupied.clear(slot);
+        freeSlots.push(slot);
+
+        byCategory.get(entry.category()).clear(slot);
+        byLight.get(entry.lightRequirement()).clear(slot);
+        byWater.get(entry.waterRequirement()).clear(slot);
+        for (String token : entry.tokens()) {
+            BitSet slots = byToken.get(token);
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                byToken.remove(token);
+            }
+        }
+        removePrice(entry.priceCents(), slot);
+    }
+
+    /**
+     * Narrows {@code matches} to a price range, either by walking the sorted
+     * prices in the range or by checking each remaining match, whichever
+     * touches fewer entries.
+     */
+    private void filterByPrice(BitSet matches, BigDecimal minPrice, BigDecimal maxPrice) {
+        long min = minPrice == null ? Long.MIN_VALUE : toCents(minPrice);
+        long max = maxPrice == null ? Long.MAX_VALUE : toCents(maxPrice);
+        int from = minPrice == null ? 0 : lowerBound(min);
+        int to = maxPrice == null ? priceCount : lowerBound(max + 1);
+
+        if (to - from > matches.cardinality()) {
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                long cents = entries.get(slot).priceCents();
+                if (cents < min || cents > max) {
+                    matches.clear(slot);
+                }
+            }
+            return;
+        }
+
+        BitSet inRange = new BitSet();
+        for (int i = from; i < to; i++) {
+            inRange.set(sortedPriceSlots[i]);
+        }
+        matches.and(inRange);
+    }
+
+    private BitSet tokenPrefix(String prefix) {
+        BitSet slots = new BitSet();
+        byToken.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values()
+                .forEach(slots::or);
+        return slots;
+    }
+
+    private void insertPrice(long cents, int slot) {
+        if (priceCount == sortedPrices.length) {
+            sortedPrices = Arrays.copyOf(sortedPrices, priceCount * 2);
+            sortedPriceSlots = Arrays.copyOf(sortedPriceSlots, priceCount * 2);
+        }
+        int position = lowerBound(cents + 1);
+        System.arraycopy(sortedPrices, position, sortedPrices, position + 1, priceCount - position);
+        System.arraycopy(sortedPriceSlots, position, sortedPriceSlots, position + 1, priceCount - position);
+        sortedPrices[position] = cents;
+        sortedPriceSlots[position] = slot;
+        priceCount++;
+    }
+
+    private void removePrice(long cents, int slot) {
+        for (int i = lowerBound(cents); i < priceCount && sortedPrices[i] == cents; i++) {
+            if (sortedPriceSlots[i] == slot) {
+                System.arraycopy(sortedPrices, i + 1, sortedPrices, i, priceCount - i - 1);
+                System.arraycopy(sortedPriceSlots, i + 1, sortedPriceSlots, i, priceCount - i - 1);
+                priceCount--;
+                return;
+            }
+        }
+    }
+
+    private void sortPrices() {
+        int[] slots = occupied.stream()
+                .boxed()
+                .sorted(Comparator.comparingLong(slot -> entries.get(slot).priceCents()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        priceCount = slots.length;
+        sortedPriceSlots = Arrays.copyOf(slots, Math.max(priceCount, 16));
+        sortedPrices = new long[sortedPriceSlots.length];
+        for (int i = 0; i < priceCount; i++) {
+            sortedPrices[i] = entries.get(slots[i]).priceCents();
+        }
+    }
+
+    /**
+     * Index of the first price that is not below {@code cents}.
+     */
+    private int lowerBound(long cents) {
+        int low = 0;
+        int high = priceCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedPrices[middle] < cents) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public record Result(int total, List<PlantDTO> plants) {
+    }
+
+    private record Entry(
+            Long id,
+            PlantDTO document,
+            Plant.Category category,
+            Plant.LightRequirement lightRequirement,
+            Plant.WaterRequirement waterRequirement,
+            long priceCents,
+            Collection<String> tokens
+    ) {
+    }
+}
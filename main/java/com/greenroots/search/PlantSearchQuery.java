@@ -0,0 +1,20 @@
+package com.greenroots.search;
+
+import com.greenroots.entity.Plant;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters for a catalog search; any of them may be null. {@code text} matches
+ * plants whose name or scientific name has a word starting with every word of
+ * the text.
+ */
+public record PlantSearchQuery(
+        Plant.Category category,
+        Plant.LightRequirement lightRequirement,
+        Plant.WaterRequirement waterRequirement,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        String text
+) {
+}
@@ -1,5 +1,6 @@
 package com.greenroots.security;
 
+import com.greenroots.datasource.ReadWriteRoutingDataSource;
 import com.greenroots.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -17,6 +18,8 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        // Logins often follow registration immediately; a replica may not have the user yet
+        ReadWriteRoutingDataSource.requirePrimaryForCurrentTransaction();
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
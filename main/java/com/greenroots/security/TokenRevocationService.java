@@ -0,0 +1,107 @@
+package com.greenroots.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.greenroots.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Tracks the current token version of each user. A token whose version claim is
+ * lower than the user's current version has been revoked (logout everywhere,
+ * account disabled, role change).
+ *
+ * Versions are read from a short-lived local cache, then Redis, then the users
+ * table, so the common case costs no network hop at all.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private static final String TOKEN_VERSION_KEY_PREFIX = "auth:token-version:";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.jwt.expiration}")
+    private long jwtExpiration;
+
+    @Value("${app.jwt.revocation-check-ttl}")
+    private long revocationCheckTtl;
+
+    @Value("${app.jwt.revocation-cache-size}")
+    private long revocationCacheSize;
+
+    private Cache<Long, Integer> localVersions;
+
+    @PostConstruct
+    public void init() {
+        localVersions = Caffeine.newBuilder()
+                .maximumSize(revocationCacheSize)
+                .expireAfterWrite(Duration.ofMillis(revocationCheckTtl))
+                .build();
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        return tokenVersion < currentVersion(userId);
+    }
+
+    public int currentVersion(Long userId) {
+        return localVersions.get(userId, this::loadVersion);
+    }
+
+    /**
+     * Re-reads the user's version from the database and publishes it to Redis.
+     * Must be called after the version has been bumped in the users table.
+     */
+    public void refreshVersion(Long userId) {
+        int version = loadVersionFromDatabase(userId);
+        try {
+            stringRedisTemplate.opsForValue().set(versionKey(userId), String.valueOf(version),
+                    Duration.ofMillis(jwtExpiration));
+        } catch (DataAccessException e) {
+            log.error("Failed to publish token version for user {}: {}", userId, e.getMessage());
+        }
+        localVersions.put(userId, version);
+        log.info("Token version for user {} is now {}", userId, version);
+    }
+
+    private int loadVersion(Long userId) {
+        try {
+            String cached = stringRedisTemplate.opsForValue().get(versionKey(userId));
+            if (cached != null) {
+                return Integer.parseInt(cached);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for token version lookup, falling back to database: {}", e.getMessage());
+            return loadVersionFromDatabase(userId);
+        }
+
+        int version = loadVersionFromDatabase(userId);
+        try {
+            stringRedisTemplate.opsForValue().setIfAbsent(versionKey(userId), String.valueOf(version),
+                    Duration.ofMillis(jwtExpiration));
+        } catch (DataAccessException e) {
+            log.warn("Failed to publish token version for user {}, using the database value: {}",
+                    userId, e.getMessage());
+        }
+        return version;
+    }
+
+    private int loadVersionFromDatabase(Long userId) {
+        // A deleted user revokes every token that still names it
+        return userRepository.findTokenVersionById(userId).orElse(Integer.MAX_VALUE);
+    }
+
+    private String versionKey(Long userId) {
+        return TOKEN_VERSION_KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,73 @@
+package com.greenroots.security;
+
+import com.greenroots.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lightweight authenticated principal built from JWT claims, so authenticated
+ * requests do not need to load the {@link User} entity.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final User.Role role;
+    private final boolean active;
+    private final int tokenVersion;
+
+    public static UserPrincipal from(User user) {
+        return UserPrincipal.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .active(Boolean.TRUE.equals(user.getActive()))
+                .tokenVersion(user.getTokenVersion())
+                .build();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
@@ -0,0 +1,100 @@
+package com.greenroots.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-bounded cache of already verified tokens, keyed by the SHA-256 digest of
+ * the token. Each entry lives until the token's own expiry, and every hit is
+ * re-checked against {@link TokenRevocationService}.
+ */
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.jwt.verified-cache-size}")
+    private long maximumSize;
+
+    private Cache<String, CachedToken> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    public UserPrincipal get(String token) {
+        String key = digest(token);
+        CachedToken cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+
+        UserPrincipal principal = cached.principal();
+        if (cached.expiresAtMillis() <= System.currentTimeMillis()
+                || tokenRevocationService.isRevoked(principal.getId(), principal.getTokenVersion())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(String token, UserPrincipal principal, Date expiration) {
+        if (expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(digest(token), new CachedToken(principal, expiration.getTime()));
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedToken(UserPrincipal principal, long expiresAtMillis) {
+    }
+
+    private static class TokenExpiry implements Expiry<String, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package com.greenroots.security;
 
+import com.greenroots.entity.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -15,6 +17,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -22,6 +25,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${app.jwt.claims-auth-enabled}")
+    private boolean claimsAuthEnabled;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -29,13 +37,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            UserPrincipal principal = StringUtils.hasText(jwt) ? authenticate(jwt) : null;
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
+            if (principal != null && principal.isEnabled()) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        principal, null, principal.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -47,6 +53,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserPrincipal authenticate(String jwt) {
+        if (claimsAuthEnabled) {
+            UserPrincipal cached = verifiedTokenCache.get(jwt);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Optional<Claims> claims = tokenProvider.validateAndGetClaims(jwt);
+        return claims.map(c -> resolvePrincipal(jwt, c)).orElse(null);
+    }
+
+    private UserPrincipal resolvePrincipal(String jwt, Claims claims) {
+        if (claimsAuthEnabled && tokenProvider.hasPrincipalClaims(claims)) {
+            UserPrincipal principal = tokenProvider.getPrincipalFromClaims(claims);
+            if (tokenRevocationService.isRevoked(principal.getId(), principal.getTokenVersion())) {
+                logger.debug("Rejected revoked token for user " + principal.getId());
+                return null;
+            }
+            verifiedTokenCache.put(jwt, principal, claims.getExpiration());
+            return principal;
+        }
+
+        // Tokens issued before claims-based auth, or claims auth switched off
+        User user = (User) userDetailsService.loadUserByUsername(claims.getSubject());
+        Integer tokenVersion = claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION, Integer.class);
+        if (tokenVersion != null && tokenVersion < user.getTokenVersion()) {
+            return null;
+        }
+        return UserPrincipal.from(user);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
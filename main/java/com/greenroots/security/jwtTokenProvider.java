@@ -1,28 +1,47 @@
 package com.greenroots.security;
 
+import com.greenroots.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ACTIVE = "active";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private long jwtExpiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -30,33 +49,58 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+        JwtBuilder builder = Jwts.builder()
+                .subject(userDetails.getUsername())
+                .issuedAt(now)
+                .expiration(expiryDate);
+
+        if (userDetails instanceof User user) {
+            builder.claim(CLAIM_USER_ID, user.getId())
+                    .claim(CLAIM_ROLE, user.getRole().name())
+                    .claim(CLAIM_ACTIVE, user.getActive())
+                    .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        }
+
+        return builder.signWith(signingKey, Jwts.SIG.HS512).compact();
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getClaimsFromToken(token).getSubject();
+    }
 
-        return claims.getSubject();
+    public Claims getClaimsFromToken(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the signature and expiry once and returns the claims, or empty
+     * if the token is not valid.
+     */
+    public Optional<Claims> validateAndGetClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return Optional.of(getClaimsFromToken(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
     }
+
+    public boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(CLAIM_USER_ID) != null
+                && claims.get(CLAIM_ROLE) != null
+                && claims.get(CLAIM_TOKEN_VERSION) != null;
+    }
+
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        return UserPrincipal.builder()
+                .id(claims.get(CLAIM_USER_ID, Long.class))
+                .email(claims.getSubject())
+                .role(User.Role.valueOf(claims.get(CLAIM_ROLE, String.class)))
+                .active(Boolean.TRUE.equals(claims.get(CLAIM_ACTIVE, Boolean.class)))
+                .tokenVersion(claims.get(CLAIM_TOKEN_VERSION, Integer.class))
+                .build();
+    }
+
+    public boolean validateToken(String token) {
+        return validateAndGetClaims(token).isPresent();
+    }
 }
@@ -8,6 +8,7 @@ import com.greenroots.exception.ResourceNotFoundException;
 import com.greenroots.exception.BadRequestException;
 import com.greenroots.repository.UserRepository;
 import com.greenroots.security.JwtTokenProvider;
+import com.greenroots.security.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,6 +28,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationService tokenRevocationService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -41,6 +43,7 @@ public class AuthService {
                 .phoneNumber(request.getPhoneNumber())
                 .role(User.Role.USER)
                 .active(true)
+                .tokenVersion(0)
                 .build();
 
         user = userRepository.save(user);
@@ -81,4 +84,20 @@ public class AuthService {
                 .role(user.getRole().name())
                 .build();
     }
+
+    public void revokeTokens(Long userId) {
+        if (userRepository.incrementTokenVersion(userId) == 0) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        tokenRevocationService.refreshVersion(userId);
+        log.info("All tokens revoked for user: {}", userId);
+    }
+
+    public void deactivateUser(Long userId) {
+        if (userRepository.deactivate(userId) == 0) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        tokenRevocationService.refreshVersion(userId);
+        log.info("User deactivated: {}", userId);
+    }
 }
@@ -0,0 +1,556 @@
+package com.greenroots.service;
+
+import com.greenroots.datasource.PrimaryReads;
+import com.greenroots.datasource.ReadWriteRoutingDataSource;
+import com.greenroots.dto.plant.PlantDTO;
+import com.greenroots.repository.OrderRepository;
+import com.greenroots.repository.PlantRepository;
+import com.greenroots.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Current stock levels, kept in the Redis hash {@value #STOCK_KEY} (one field
+ * per plant id) and merged into catalog documents at read time. Missing fields
+ * are backfilled from the plants table.
+ *
+ * In {@link ReservationMode#REDIS} mode the hash is the source of truth for
+ * orders: all line items are checked and reserved by one Lua script, and the
+ * reserved quantities are accumulated in {@value #PENDING_KEY} until a
+ * scheduled job writes them back to the plants table. Each reservation is also
+ * recorded under its order number until the order commits, so stock held by
+ * an order whose node died before commit can be given back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryService {
+
+    public static final String STOCK_KEY = "plant:stock";
+    public static final String PENDING_KEY = "plant:stock:pending";
+    public static final String WRITE_BACK_KEY = "plant:stock:writing";
+    public static final String FLUSH_SEQUENCE_KEY = "plant:stock:flush-seq";
+    public static final String WRITE_BACK_LEASE_KEY = "plant:stock:flushing";
+    public static final String RESERVATION_KEY_PREFIX = "plant:stock:reservation:";
+    public static final String RESERVATIONS_KEY = "plant:stock:reservations";
+
+    // Field of the write-back hash holding its batch id; every other field is a plant id
+    private static final String BATCH_FIELD = "batch";
+    private static final Duration WRITE_BACK_RETENTION = Duration.ofDays(1);
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    private static final int MAX_SEED_ATTEMPTS = 5;
+    private static final long SEED_RETRY_DELAY_MILLIS = 10;
+
+    // Only adjust levels that are already tracked; a missing field is backfilled from the database on read
+    private static final RedisScript<Long> ADJUST_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then "
+                    + "return redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) end "
+                    + "return nil",
+            Long.class);
+
+    // ARGV: order number, reservation TTL (ms), now (ms), then plantId, quantity pairs. Returns
+    // 0 on success, the 1-based index of the first short item, or minus the index of the first
+    // item whose level is not loaded yet. The reserved quantities are also recorded in the
+    // order's reservation hash (KEYS[3]) and the order indexed by time in KEYS[4].
+    private static final RedisScript<Long> RESERVE = new DefaultRedisScript<>(
+            "for i = 4, #ARGV, 2 do "
+                    + "local stock = redis.call('HGET', KEYS[1], ARGV[i]) "
+                    + "if not stock then return -((i - 2) / 2) end "
+                    + "if tonumber(stock) < tonumber(ARGV[i + 1]) then return (i - 2) / 2 end "
+                    + "end "
+                    + "for i = 4, #ARGV, 2 do "
+                    + "redis.call('HINCRBY', KEYS[1], ARGV[i], -tonumber(ARGV[i + 1])) "
+                    + "redis.call('HINCRBY', KEYS[2], ARGV[i], ARGV[i + 1]) "
+                    + "redis.call('HINCRBY', KEYS[3], ARGV[i], ARGV[i + 1]) "
+                    + "end "
+                    + "redis.call('PEXPIRE', KEYS[3], ARGV[2]) "
+                    + "redis.call('ZADD', KEYS[4], ARGV[3], ARGV[1]) "
+                    + "return 0",
+            Long.class);
+
+    // Gives back whatever the order's reservation hash still records, so it is
+    // safe to run from both the rollback hook and the abandoned-reservation sweep
+    private static final RedisScript<Long> RELEASE_RESERVATION = new DefaultRedisScript<>(
+            "local entries = redis.call('HGETALL', KEYS[3]) "
+                    + "for i = 1, #entries, 2 do "
+                    + "redis.call('HINCRBY', KEYS[1], entries[i], entries[i + 1]) "
+                    + "redis.call('HINCRBY', KEYS[2], entries[i], -tonumber(entries[i + 1])) "
+                    + "end "
+                    + "redis.call('DEL', KEYS[3]) "
+                    + "redis.call('ZREM', KEYS[4], ARGV[1]) "
+                    + "return #entries / 2",
+            Long.class);
+
+    // The order committed: its reservation is now sold stock and no longer needs tracking
+    private static final RedisScript<Long> CONFIRM_RESERVATION = new DefaultRedisScript<>(
+            "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('ZREM', KEYS[2], ARGV[1]) "
+                    + "return 0",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "for i = 1, #ARGV, 2 do "
+                    + "redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) "
+                    + "redis.call('HINCRBY', KEYS[2], ARGV[i], -tonumber(ARGV[i + 1])) "
+                    + "end "
+                    + "return 0",
+            Long.class);
+
+    // Seeds a level from the database value minus what is reserved but not yet written back.
+    // ARGV[1] is the flush sequence observed before reading the database, followed by
+    // plantId, databaseStock pairs. Gives up if a write-back ran meanwhile or a drained
+    // batch (KEYS[4]) is not yet known to be committed.
+    private static final RedisScript<Long> SEED = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[3]) or '0') ~= ARGV[1] "
+                    + "or redis.call('EXISTS', KEYS[4]) == 1 then "
+                    + "return -1 end "
+                    + "for i = 2, #ARGV, 2 do "
+                    + "if redis.call('HEXISTS', KEYS[1], ARGV[i]) == 0 then "
+                    + "local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[i]) or '0') "
+                    + "redis.call('HSET', KEYS[1], ARGV[i], tonumber(ARGV[i + 1]) - pending) "
+                    + "end "
+                    + "end "
+                    + "return 0",
+            Long.class);
+
+    // Admin edits replace the level outright, including anything reserved but not yet written back
+    private static final RedisScript<Long> OVERWRITE = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) "
+                    + "redis.call('HDEL', KEYS[2], ARGV[1]) "
+                    + "return 0",
+            Long.class);
+
+    // Takes the write-back lease (KEYS[4], value ARGV[2], TTL ARGV[1]) and returns the batch
+    // to apply: a batch left in the write-back hash by a run that did not finish, or else the
+    // pending hash moved there under batch id ARGV[2]. Returns nothing if another node holds
+    // the lease or nothing is pending.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN_PENDING = new DefaultRedisScript<>(
+            "if not redis.call('SET', KEYS[4], ARGV[2], 'NX', 'PX', ARGV[1]) then return {} end "
+                    + "if redis.call('EXISTS', KEYS[2]) == 0 then "
+                    + "if redis.call('EXISTS', KEYS[1]) == 0 then "
+                    + "redis.call('DEL', KEYS[4]) "
+                    + "return {} end "
+                    + "redis.call('RENAME', KEYS[1], KEYS[2]) "
+                    + "redis.call('HSET', KEYS[2], '" + BATCH_FIELD + "', ARGV[2]) "
+                    + "redis.call('INCR', KEYS[3]) "
+                    + "end "
+                    + "return redis.call('HGETALL', KEYS[2])",
+            List.class);
+
+    // ARGV[1] is the flush sequence observed before reading the database, followed by
+    // plantId, databaseStock pairs. Gives up if a write-back ran meanwhile or a drained
+    // batch (KEYS[4]) is not yet known to be committed.
+    private static final RedisScript<Long> RECONCILE = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[3]) or '0') ~= ARGV[1] "
+                    + "or redis.call('EXISTS', KEYS[4]) == 1 then "
+                    + "return -1 end "
+                    + "local fixed = 0 "
+                    + "for i = 2, #ARGV, 2 do "
+                    + "local pending = tonumber(redis.call('HGET', KEYS[2], ARGV[i]) or '0') "
+                    + "local current = redis.call('HGET', KEYS[1], ARGV[i]) "
+                    + "if pending == 0 and current and tonumber(current) ~= tonumber(ARGV[i + 1]) then "
+                    + "redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) "
+                    + "fixed = fixed + 1 "
+                    + "end "
+                    + "end "
+                    + "return fixed",
+            Long.class);
+
+    // ARGV: batch id, lease token, '1' if the batch is known to be committed. Only a committed
+    // batch is deleted; otherwise it stays in the write-back hash and the next run replays it.
+    private static final RedisScript<Long> FINISH_WRITE_BACK = new DefaultRedisScript<>(
+            "if ARGV[3] == '1' and redis.call('HGET', KEYS[1], '" + BATCH_FIELD + "') == ARGV[1] then "
+                    + "redis.call('DEL', KEYS[1]) end "
+                    + "redis.call('INCR', KEYS[2]) "
+                    + "if redis.call('GET', KEYS[3]) == ARGV[2] then redis.call('DEL', KEYS[3]) end "
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PlantRepository plantRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PrimaryReads primaryReads;
+
+    @Value("${app.inventory.reservation-mode}")
+    private ReservationMode reservationMode;
+
+    @Value("${app.inventory.write-back-timeout}")
+    private long writeBackTimeout;
+
+    @Value("${app.inventory.reservation-timeout}")
+    private long reservationTimeout;
+
+    @Value("${app.inventory.reservation-ttl}")
+    private long reservationTtl;
+
+    public ReservationMode getReservationMode() {
+        return reservationMode;
+    }
+
+    public PlantDTO withCurrentStock(PlantDTO plant) {
+        Integer stock = getStock(List.of(plant.getId())).get(plant.getId());
+        return plant.toBuilder().stockQuantity(stock).build();
+    }
+
+    public List<PlantDTO> withCurrentStock(List<PlantDTO> plants) {
+        Map<Long, Integer> stock = getStock(plants.stream().map(PlantDTO::getId).collect(Collectors.toList()));
+        return plants.stream()
+                .map(plant -> plant.toBuilder().stockQuantity(stock.get(plant.getId())).build())
+                .collect(Collectors.toList());
+    }
+
+    public Map<Long, Integer> getStock(Collection<Long> plantIds) {
+        Map<Long, Integer> stock = new HashMap<>();
+        if (plantIds.isEmpty()) {
+            return stock;
+        }
+
+        List<Long> ids = new ArrayList<>(plantIds);
+        List<Long> missing = new ArrayList<>();
+        try {
+            List<String> values = hashOperations().multiGet(STOCK_KEY,
+                    ids.stream().map(String::valueOf).collect(Collectors.toList()));
+            for (int i = 0; i < ids.size(); i++) {
+                String value = values.get(i);
+                if (value != null) {
+                    stock.put(ids.get(i), Integer.parseInt(value));
+                } else {
+                    missing.add(ids.get(i));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for stock lookup, reading from database: {}", e.getMessage());
+            plantRepository.findStockByIdIn(ids).forEach(level -> stock.put(level.getId(), level.getStockQuantity()));
+            return stock;
+        }
+
+        if (!missing.isEmpty()) {
+            seed(missing);
+            List<String> seeded = hashOperations().multiGet(STOCK_KEY,
+                    missing.stream().map(String::valueOf).collect(Collectors.toList()));
+            for (int i = 0; i < missing.size(); i++) {
+                if (seeded.get(i) != null) {
+                    stock.put(missing.get(i), Integer.parseInt(seeded.get(i)));
+                }
+            }
+        }
+        return stock;
+    }
+
+    /**
+     * Atomically checks and reserves every line item in Redis for the order.
+     * Returns the id of the first plant without enough stock, or null when
+     * everything was reserved. The reservation is released again if the
+     * current transaction rolls back and forgotten once it commits; if neither
+     * happens it is settled by {@link #releaseAbandonedReservations()}.
+     */
+    public Long reserve(String orderNumber, Map<Long, Integer> quantities) {
+        List<Long> plantIds = new ArrayList<>(quantities.keySet());
+        List<String> args = new ArrayList<>(List.of(orderNumber, String.valueOf(reservationTtl), ""));
+        args.addAll(List.of(toScriptArgs(quantities)));
+
+        for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS; attempt++) {
+            args.set(2, String.valueOf(System.currentTimeMillis()));
+            Long result = stringRedisTemplate.execute(RESERVE, reservationKeys(orderNumber), args.toArray());
+            if (result == null || result == 0) {
+                TransactionUtils.afterRollback(() -> releaseReservation(orderNumber));
+                TransactionUtils.afterCommit(() -> confirmReservation(orderNumber));
+                return null;
+            }
+            if (result > 0) {
+                return plantIds.get(result.intValue() - 1);
+            }
+            seed(plantIds);
+        }
+        throw new IllegalStateException("Stock levels could not be loaded for plants: " + plantIds);
+    }
+
+    /**
+     * Gives reserved stock back. In Redis mode the release runs once the
+     * current transaction commits and is queued for write-back like any
+     * reservation; in database mode the plants table is incremented in the
+     * current transaction.
+     */
+    public void release(Map<Long, Integer> quantities) {
+        if (reservationMode == ReservationMode.REDIS) {
+            TransactionUtils.afterCommit(() -> releaseReserved(quantities));
+            return;
+        }
+
+        quantities.forEach((plantId, quantity) -> {
+            plantRepository.incrementStock(plantId, quantity);
+            adjustStockAfterCommit(plantId, quantity);
+        });
+        log.info("Released stock: {}", quantities);
+    }
+
+    private void releaseReserved(Map<Long, Integer> quantities) {
+        stringRedisTemplate.execute(RELEASE, List.of(STOCK_KEY, PENDING_KEY), (Object[]) toScriptArgs(quantities));
+        log.info("Released reserved stock: {}", quantities);
+    }
+
+    private void releaseReservation(String orderNumber) {
+        Long released = stringRedisTemplate.execute(RELEASE_RESERVATION, reservationKeys(orderNumber), orderNumber);
+        log.info("Released stock reserved for order {} ({} plants)", orderNumber, released);
+    }
+
+    private void confirmReservation(String orderNumber) {
+        try {
+            stringRedisTemplate.execute(CONFIRM_RESERVATION,
+                    List.of(RESERVATION_KEY_PREFIX + orderNumber, RESERVATIONS_KEY), orderNumber);
+        } catch (DataAccessException e) {
+            // The sweep finds the order in the database and confirms it then
+            log.warn("Failed to confirm stock reservation for order {}: {}", orderNumber, e.getMessage());
+        }
+    }
+
+    /**
+     * Settles reservations older than {@code app.inventory.reservation-timeout}
+     * that were neither confirmed nor released, i.e. whose node died between
+     * reserving and committing. Orders found in the database keep their stock;
+     * the others never existed and their stock is given back.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reservation-sweep-interval}")
+    public void releaseAbandonedReservations() {
+        if (reservationMode != ReservationMode.REDIS) {
+            return;
+        }
+
+        Set<String> stale = stringRedisTemplate.opsForZSet().rangeByScore(RESERVATIONS_KEY,
+                0, System.currentTimeMillis() - reservationTimeout, 0, RECONCILE_BATCH_SIZE);
+        if (stale == null || stale.isEmpty()) {
+            return;
+        }
+
+        Set<String> placed = new HashSet<>(primaryReads.execute(() -> orderRepository.findOrderNumbersIn(stale)));
+        int released = 0;
+        for (String orderNumber : stale) {
+            if (placed.contains(orderNumber)) {
+                confirmReservation(orderNumber);
+            } else {
+                releaseReservation(orderNumber);
+                released++;
+            }
+        }
+        if (released > 0) {
+            log.warn("Released stock reserved by {} orders that were never committed", released);
+        }
+    }
+
+    public void setStockAfterCommit(Long plantId, int quantity) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(OVERWRITE, List.of(STOCK_KEY, PENDING_KEY),
+                        String.valueOf(plantId), String.valueOf(quantity));
+            } catch (DataAccessException e) {
+                log.error("Failed to publish stock for plant {}, dropping cached level: {}", plantId, e.getMessage());
+                evictStock(plantId);
+            }
+        });
+    }
+
+    public void adjustStockAfterCommit(Long plantId, int delta) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                stringRedisTemplate.execute(ADJUST_IF_PRESENT, List.of(STOCK_KEY),
+                        String.valueOf(plantId), String.valueOf(delta));
+            } catch (DataAccessException e) {
+                log.error("Failed to adjust stock for plant {}, dropping cached level: {}", plantId, e.getMessage());
+                evictStock(plantId);
+            }
+        });
+    }
+
+    /**
+     * Writes quantities reserved in Redis back to the plants table. The pending
+     * hash is moved to {@value #WRITE_BACK_KEY} under a batch id and only
+     * deleted once the batch has committed; a batch left behind by a failed
+     * or crashed run is replayed by the next one. The batch id is recorded in
+     * the same transaction, so a batch that committed before the crash is not
+     * applied twice.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.write-back-interval}")
+    public void writeBackReservations() {
+        if (reservationMode != ReservationMode.REDIS) {
+            return;
+        }
+
+        String leaseToken = UUID.randomUUID().toString();
+        @SuppressWarnings("unchecked")
+        List<String> entries = stringRedisTemplate.execute(DRAIN_PENDING,
+                List.of(PENDING_KEY, WRITE_BACK_KEY, FLUSH_SEQUENCE_KEY, WRITE_BACK_LEASE_KEY),
+                String.valueOf(writeBackTimeout), leaseToken);
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        String batch = null;
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i += 2) {
+            if (BATCH_FIELD.equals(entries.get(i))) {
+                batch = entries.get(i + 1);
+                continue;
+            }
+            int delta = Integer.parseInt(entries.get(i + 1));
+            if (delta != 0) {
+                deltas.put(Long.valueOf(entries.get(i)), delta);
+            }
+        }
+
+        String batchId = batch;
+        boolean committed = false;
+        try {
+            Boolean applied = transactionTemplate.execute(status -> {
+                if (plantRepository.countStockWriteBacks(batchId) > 0) {
+                    return false;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                plantRepository.recordStockWriteBack(batchId, now);
+                plantRepository.deleteStockWriteBacksBefore(now.minus(WRITE_BACK_RETENTION));
+                deltas.forEach((plantId, delta) -> plantRepository.decrementStock(plantId, delta));
+                return true;
+            });
+            committed = true;
+            if (Boolean.TRUE.equals(applied)) {
+                log.info("Wrote back stock reservations for {} plants", deltas.size());
+            } else {
+                log.warn("Stock write-back batch {} was already applied, dropping it", batchId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Stock write-back failed, keeping {} deltas for the next run", deltas.size(), e);
+        } finally {
+            stringRedisTemplate.execute(FINISH_WRITE_BACK,
+                    List.of(WRITE_BACK_KEY, FLUSH_SEQUENCE_KEY, WRITE_BACK_LEASE_KEY),
+                    batchId, leaseToken, committed ? "1" : "0");
+        }
+    }
+
+    /**
+     * Corrects Redis levels that drifted from the plants table, e.g. after a
+     * write-back was lost. Only plants with nothing pending are touched, and the
+     * pass is skipped if a write-back overlapped with it or a drained batch has
+     * not been confirmed as committed yet. Reads the primary: a
+     * lagging replica would "correct" Redis back to stale levels.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.reconcile-interval}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        if (reservationMode != ReservationMode.REDIS) {
+            return;
+        }
+        ReadWriteRoutingDataSource.requirePrimaryForCurrentTransaction();
+
+        String sequence = stringRedisTemplate.opsForValue().get(FLUSH_SEQUENCE_KEY);
+        List<PlantRepository.StockLevel> levels = plantRepository.findAllStockLevels();
+
+        long fixed = 0;
+        for (int from = 0; from < levels.size(); from += RECONCILE_BATCH_SIZE) {
+            List<String> args = new ArrayList<>();
+            args.add(sequence == null ? "0" : sequence);
+            levels.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, levels.size())).forEach(level -> {
+                args.add(String.valueOf(level.getId()));
+                args.add(String.valueOf(level.getStockQuantity()));
+            });
+
+            Long result = stringRedisTemplate.execute(RECONCILE,
+                    List.of(STOCK_KEY, PENDING_KEY, FLUSH_SEQUENCE_KEY, WRITE_BACK_KEY), args.toArray());
+            if (result == null || result < 0) {
+                log.debug("Stock reconciliation skipped, a write-back overlapped");
+                return;
+            }
+            fixed += result;
+        }
+
+        if (fixed > 0) {
+            log.warn("Reconciled {} drifted stock levels from the database", fixed);
+        }
+    }
+
+    /**
+     * Loads missing levels from the plants table, read on the primary so a
+     * lagging replica cannot seed an old level. The database read and the
+     * SEED script are not atomic, so the seed is discarded and retried if a
+     * write-back drained pending quantities or updated the table in between.
+     */
+    private void seed(Collection<Long> plantIds) {
+        for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++) {
+            String sequence = stringRedisTemplate.opsForValue().get(FLUSH_SEQUENCE_KEY);
+            List<String> args = new ArrayList<>();
+            args.add(sequence == null ? "0" : sequence);
+            primaryReads.execute(() -> plantRepository.findStockByIdIn(plantIds)).forEach(level -> {
+                args.add(String.valueOf(level.getId()));
+                args.add(String.valueOf(level.getStockQuantity()));
+            });
+            if (args.size() == 1) {
+                return;
+            }
+
+            Long result = stringRedisTemplate.execute(SEED,
+                    List.of(STOCK_KEY, PENDING_KEY, FLUSH_SEQUENCE_KEY, WRITE_BACK_KEY), args.toArray());
+            if (result != null && result >= 0) {
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(SEED_RETRY_DELAY_MILLIS * (attempt + 1)));
+        }
+        log.warn("Stock seeding for plants {} kept overlapping with write-backs, leaving them unseeded", plantIds);
+    }
+
+    private void evictStock(Long plantId) {
+        try {
+            hashOperations().delete(STOCK_KEY, String.valueOf(plantId));
+        } catch (DataAccessException e) {
+            log.error("Failed to evict stock for plant {}: {}", plantId, e.getMessage());
+        }
+    }
+
+    private List<String> reservationKeys(String orderNumber) {
+        return List.of(STOCK_KEY, PENDING_KEY, RESERVATION_KEY_PREFIX + orderNumber, RESERVATIONS_KEY);
+    }
+
+    private String[] toScriptArgs(Map<Long, Integer> quantities) {
+        String[] args = new String[quantities.size() * 2];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            args[i++] = String.valueOf(entry.getKey());
+            args[i++] = String.valueOf(entry.getValue());
+        }
+        return args;
+    }
+
+    private HashOperations<String, String, String> hashOperations() {
+        return stringRedisTemplate.opsForHash();
+    }
+
+    public enum ReservationMode {
+        REDIS, DATABASE
+    }
+}
@@ -1,27 +1,33 @@
 package com.greenroots.service;
 
+import com.greenroots.datasource.ReadYourWritesTracker;
+import com.greenroots.dto.order.OrderPageResponse;
 import com.greenroots.dto.order.OrderRequest;
 import com.greenroots.dto.order.OrderResponse;
+import com.greenroots.dto.order.OrderSearchCriteria;
 import com.greenroots.entity.*;
 import com.greenroots.exception.BadRequestException;
 import com.greenroots.exception.ResourceNotFoundException;
 import com.greenroots.kafka.OrderEventProducer;
 import com.greenroots.repository.OrderRepository;
 import com.greenroots.repository.PlantRepository;
+import com.greenroots.repository.PlantRepositoryCustom.StockDecrement;
 import com.greenroots.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,104 +39,165 @@ public class OrderService {
     private final PlantRepository plantRepository;
     private final UserRepository userRepository;
     private final PaymentService paymentService;
+    private final InventoryService inventoryService;
     private final OrderEventProducer orderEventProducer;
-    private final RedissonClient redissonClient;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
-    @Value("${app.redis.lock.wait-time}")
-    private long lockWaitTime;
-
-    @Value("${app.redis.lock.lease-time}")
-    private long lockLeaseTime;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Transactional
     public OrderResponse createOrder(OrderRequest request, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        List<String> lockKeys = new ArrayList<>();
-        List<RLock> locks = new ArrayList<>();
-
-        try {
-            Order order = Order.builder()
-                    .orderNumber(generateOrderNumber())
-                    .user(user)
-                    .status(Order.OrderStatus.PENDING)
-                    .shippingAddress(request.getShippingAddress())
-                    .shippingCity(request.getShippingCity())
-                    .shippingPostalCode(request.getShippingPostalCode())
-                    .shippingCountry(request.getShippingCountry())
-                    .orderItems(new ArrayList<>())
-                    .build();
-
-            BigDecimal totalAmount = BigDecimal.ZERO;
+        Order order = Order.builder()
+                .orderNumber(generateOrderNumber())
+                .user(user)
+                .status(Order.OrderStatus.PENDING)
+                .shippingAddress(request.getShippingAddress())
+                .shippingCity(request.getShippingCity())
+                .shippingPostalCode(request.getShippingPostalCode())
+                .shippingCountry(request.getShippingCountry())
+                .orderItems(new ArrayList<>())
+                .build();
 
-            for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-                String lockKey = "plant:stock:" + itemRequest.getPlantId();
-                lockKeys.add(lockKey);
-                RLock lock = redissonClient.getLock(lockKey);
+        Map<Long, String> plantNames = inventoryService.getReservationMode() == InventoryService.ReservationMode.REDIS
+                ? addReservedItems(order, request)
+                : addDecrementedItems(order, request);
 
-                boolean acquired = lock.tryLock(lockWaitTime, lockLeaseTime, TimeUnit.MILLISECONDS);
-                if (!acquired) {
-                    throw new BadRequestException("Unable to acquire lock for plant: " + itemRequest.getPlantId());
-                }
-                locks.add(lock);
+        order.setTotalAmount(order.getOrderItems().stream()
+                .map(OrderItem::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        order = orderRepository.save(order);
 
-                Plant plant = plantRepository.findByIdWithLock(itemRequest.getPlantId())
-                        .orElseThrow(() -> new ResourceNotFoundException("Plant not found"));
+        paymentService.createPendingPayment(order);
+        readYourWritesTracker.recordWriteAfterCommit(userId);
 
-                if (plant.getStockQuantity() < itemRequest.getQuantity()) {
-                    throw new BadRequestException("Insufficient stock for plant: " + plant.getName());
-                }
+        log.info("Order created successfully: {}", order.getOrderNumber());
 
-                plant.setStockQuantity(plant.getStockQuantity() - itemRequest.getQuantity());
-                plantRepository.save(plant);
+        orderEventProducer.sendOrderCreatedEvent(order);
 
-                BigDecimal subtotal = plant.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-                totalAmount = totalAmount.add(subtotal);
+        return buildOrderResponse(order, item -> plantNames.get(item.getPlant().getId()));
+    }
 
-                OrderItem orderItem = OrderItem.builder()
-                        .plant(plant)
-                        .quantity(itemRequest.getQuantity())
-                        .priceAtPurchase(plant.getPrice())
-                        .subtotal(subtotal)
-                        .build();
+    /**
+     * Reserves every line item with a single atomic Redis call; the plants table
+     * is updated later by the inventory write-back. No locks are taken.
+     */
+    private Map<Long, String> addReservedItems(Order order, OrderRequest request) {
+        Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+
+        Map<Long, Plant> plants = plantRepository.findAllById(quantities.keySet()).stream()
+                .filter(Plant::getActive)
+                .collect(Collectors.toMap(Plant::getId, Function.identity()));
+        if (plants.size() != quantities.size()) {
+            throw new ResourceNotFoundException("Plant not found");
+        }
 
-                order.addOrderItem(orderItem);
-            }
+        Long shortPlantId = inventoryService.reserve(order.getOrderNumber(), quantities);
+        if (shortPlantId != null) {
+            throw new BadRequestException("Insufficient stock for plant: " + plants.get(shortPlantId).getName());
+        }
 
-            order.setTotalAmount(totalAmount);
-            order = orderRepository.save(order);
+        quantities.forEach((plantId, quantity) -> order.addOrderItem(buildOrderItem(plants.get(plantId), quantity)));
+        return plants.values().stream().collect(Collectors.toMap(Plant::getId, Plant::getName));
+    }
 
-            log.info("Order created successfully: {}", order.getOrderNumber());
+    /**
+     * Decrements every line item in the plants table with conditional updates
+     * ({@code stock_quantity >= quantity}), so no entity is loaded and row
+     * locks are only taken by the update itself. If any item could not be
+     * decremented the exception rolls the others back.
+     */
+    private Map<Long, String> addDecrementedItems(Order order, OrderRequest request) {
+        Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+
+        Map<Long, StockDecrement> decremented = plantRepository.decrementStockIfAvailable(quantities);
+        if (decremented.size() != quantities.size()) {
+            Long failedPlantId = quantities.keySet().stream()
+                    .filter(plantId -> !decremented.containsKey(plantId))
+                    .findFirst()
+                    .orElseThrow();
+            Plant plant = plantRepository.findById(failedPlantId)
+                    .filter(Plant::getActive)
+                    .orElseThrow(() -> new ResourceNotFoundException("Plant not found"));
+            throw new BadRequestException("Insufficient stock for plant: " + plant.getName());
+        }
 
-            String paymentIntentId = paymentService.createPaymentIntent(order);
+        quantities.forEach((plantId, quantity) -> {
+            inventoryService.adjustStockAfterCommit(plantId, -quantity);
+            order.addOrderItem(buildOrderItem(plantRepository.getReferenceById(plantId),
+                    decremented.get(plantId).price(), quantity));
+        });
+        return decremented.values().stream().collect(Collectors.toMap(StockDecrement::id, StockDecrement::name));
+    }
 
-            orderEventProducer.sendOrderCreatedEvent(order);
+    private Map<Long, Integer> mergeQuantities(List<OrderRequest.OrderItemRequest> items) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderRequest.OrderItemRequest item : items) {
+            if (item.getPlantId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new BadRequestException("Each item needs a plant id and a positive quantity");
+            }
+            quantities.merge(item.getPlantId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
 
-            return buildOrderResponse(order);
+    private OrderItem buildOrderItem(Plant plant, int quantity) {
+        return buildOrderItem(plant, plant.getPrice(), quantity);
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new BadRequestException("Order creation interrupted");
-        } finally {
-            locks.forEach(lock -> {
-                if (lock.isHeldByCurrentThread()) {
-                    lock.unlock();
-                }
-            });
-        }
+    private OrderItem buildOrderItem(Plant plant, BigDecimal price, int quantity) {
+        return OrderItem.builder()
+                .plant(plant)
+                .quantity(quantity)
+                .priceAtPurchase(price)
+                .subtotal(price.multiply(BigDecimal.valueOf(quantity)))
+                .build();
     }
 
+    /**
+     * One page of orders, newest first, using keyset pagination on
+     * {@code (created_at, id)}: the cost of a page does not depend on how far
+     * into the history it is. Pass a null {@code userId} to search all users.
+     */
     @Transactional(readOnly = true)
-    public List<OrderResponse> getUserOrders(Long userId) {
-        return orderRepository.findByUserId(userId).stream()
+    public OrderPageResponse searchOrders(Long userId, Order.OrderStatus status, LocalDateTime from,
+                                          LocalDateTime to, String cursor, Integer size) {
+        if (userId != null) {
+            readYourWritesTracker.routeReadsFor(userId);
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        OrderSearchCriteria criteria = withCursor(userId, status, from, to, cursor, pageSize + 1);
+
+        List<Long> ids = orderRepository.findOrderIds(criteria);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+
+        Map<Long, Order> orders = orderRepository.findWithDetailsByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<OrderResponse> responses = pageIds.stream()
+                .map(orders::get)
                 .map(this::buildOrderResponse)
                 .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(pageIds.get(pageIds.size() - 1));
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return OrderPageResponse.builder()
+                .orders(responses)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId)
+        readYourWritesTracker.routeReadsFor(userId);
+        Order order = orderRepository.findWithDetailsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
         if (!order.getUser().getId().equals(userId)) {
@@ -146,18 +213,42 @@ public class OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         order.setStatus(status);
         orderRepository.save(order);
+        readYourWritesTracker.recordWriteAfterCommit(order.getUser().getId());
         log.info("Order status updated: {} -> {}", order.getOrderNumber(), status);
     }
 
+    private OrderSearchCriteria withCursor(Long userId, Order.OrderStatus status, LocalDateTime from,
+                                           LocalDateTime to, String cursor, int limit) {
+        if (cursor == null || cursor.isBlank()) {
+            return new OrderSearchCriteria(userId, status, from, to, null, null, limit);
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new OrderSearchCriteria(userId, status, from, to,
+                    LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]), limit);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
     private String generateOrderNumber() {
         return "ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
 
     private OrderResponse buildOrderResponse(Order order) {
+        return buildOrderResponse(order, item -> item.getPlant().getName());
+    }
+
+    private OrderResponse buildOrderResponse(Order order, Function<OrderItem, String> plantName) {
         List<OrderResponse.OrderItemResponse> items = order.getOrderItems().stream()
                 .map(item -> OrderResponse.OrderItemResponse.builder()
                         .plantId(item.getPlant().getId())
-                        .plantName(item.getPlant().getName())
+                        .plantName(plantName.apply(item))
                         .quantity(item.getQuantity())
                         .priceAtPurchase(item.getPriceAtPurchase())
                         .subtotal(item.getSubtotal())
@@ -1,89 +1,297 @@
 package com.greenroots.service;
 
+import com.greenroots.datasource.ReadYourWritesTracker;
 import com.greenroots.entity.Order;
+import com.greenroots.entity.OrderItem;
 import com.greenroots.entity.Payment;
 import com.greenroots.exception.BadRequestException;
 import com.greenroots.kafka.PaymentEventProducer;
 import com.greenroots.repository.PaymentRepository;
+import com.greenroots.util.ThreadFactories;
+import com.greenroots.util.TransactionUtils;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.IdempotencyException;
+import com.stripe.exception.RateLimitException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.PaymentIntentCreateParams;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * Payments are created in two phases. The order transaction only inserts a
+ * PENDING payment row; the Stripe PaymentIntent is created after commit on a
+ * worker thread, outside any transaction or lock, using the payment's
+ * idempotency key so repeated attempts return the same intent. Rows whose
+ * intent could not be created are retried by a scheduled sweep with backoff.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentService {
 
+    private static final int SWEEP_BATCH_SIZE = 100;
+
     private final PaymentRepository paymentRepository;
     private final PaymentEventProducer paymentEventProducer;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Environment environment;
 
-    @Transactional
-    public String createPaymentIntent(Order order) {
-        try {
-            String idempotencyKey = UUID.randomUUID().toString();
-
-            Long amountInCents = order.getTotalAmount()
-                    .multiply(java.math.BigDecimal.valueOf(100))
-                    .longValue();
-
-            PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                    .setAmount(amountInCents)
-                    .setCurrency("usd")
-                    .putMetadata("order_id", order.getId().toString())
-                    .putMetadata("order_number", order.getOrderNumber())
-                    .setAutomaticPaymentMethods(
-                            PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
-                                    .setEnabled(true)
-                                    .build())
-                    .build();
-
-            PaymentIntent paymentIntent = PaymentIntent.create(params);
-
-            Payment payment = Payment.builder()
-                    .order(order)
-                    .stripePaymentIntentId(paymentIntent.getId())
-                    .amount(order.getTotalAmount())
-                    .currency("usd")
-                    .status(Payment.PaymentStatus.PENDING)
-                    .idempotencyKey(idempotencyKey)
-                    .build();
-
-            paymentRepository.save(payment);
-            log.info("Payment intent created: {} for order: {}", paymentIntent.getId(), order.getOrderNumber());
-
-            return paymentIntent.getId();
+    @Value("${app.stripe.intent.workers}")
+    private int intentWorkers;
+
+    @Value("${app.stripe.intent.queue-capacity}")
+    private int intentQueueCapacity;
+
+    @Value("${app.stripe.intent.max-attempts}")
+    private int maxIntentAttempts;
+
+    @Value("${app.stripe.intent.retry-backoff}")
+    private long intentRetryBackoff;
+
+    @Value("${app.stripe.intent.claim-timeout}")
+    private long intentClaimTimeout;
+
+    private ThreadPoolExecutor intentExecutor;
+
+    @PostConstruct
+    public void init() {
+        intentExecutor = new ThreadPoolExecutor(intentWorkers, intentWorkers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(intentQueueCapacity),
+                ThreadFactories.named("payment-intent-", Threading.VIRTUAL.isActive(environment)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        intentExecutor.shutdown();
+    }
+
+    /**
+     * Records a PENDING payment for the order in the current transaction and
+     * hands the Stripe call to a worker once it commits. The after-commit
+     * submit counts as a claim: the row is not due for the sweep until the
+     * claim timeout has passed, so a slow first call is not raced by a retry.
+     */
+    public Payment createPendingPayment(Order order) {
+        Payment payment = Payment.builder()
+                .order(order)
+                .amount(order.getTotalAmount())
+                .currency("usd")
+                .status(Payment.PaymentStatus.PENDING)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(intentClaimTimeout)))
+                .build();
+
+        payment = paymentRepository.save(payment);
+        order.setPayment(payment);
+
+        Long paymentId = payment.getId();
+        TransactionUtils.afterCommit(() -> submitPaymentIntent(paymentId));
+        return payment;
+    }
 
+    /**
+     * Creates the Stripe PaymentIntent for a pending payment. The Stripe call
+     * runs outside any transaction; only the reads and writes around it do not.
+     */
+    public void createPaymentIntent(Long paymentId) {
+        IntentRequest request = transactionTemplate.execute(status -> paymentRepository.findById(paymentId)
+                .filter(this::awaitingIntent)
+                .map(payment -> new IntentRequest(buildIntentParams(payment), payment.getIdempotencyKey()))
+                .orElse(null));
+        if (request == null) {
+            return;
+        }
+
+        try {
+            PaymentIntent paymentIntent = PaymentIntent.create(request.params(),
+                    RequestOptions.builder().setIdempotencyKey(request.idempotencyKey()).build());
+            transactionTemplate.executeWithoutResult(status -> recordIntent(paymentId, paymentIntent.getId()));
         } catch (StripeException e) {
-            log.error("Stripe payment intent creation failed: {}", e.getMessage());
-            throw new BadRequestException("Payment processing failed: " + e.getMessage());
+            log.error("Stripe payment intent creation failed for payment {}: {}", paymentId, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> recordIntentFailure(paymentId, e));
+        }
+    }
+
+    /**
+     * Claims due payments ({@code FOR UPDATE SKIP LOCKED}, then pushes their
+     * next attempt past the claim timeout) so nodes do not retry the same rows,
+     * and hands them to the intent workers. No Stripe call runs on the
+     * scheduler thread; a claim whose worker never ran simply expires.
+     */
+    @Scheduled(fixedDelayString = "${app.stripe.intent.sweep-interval}")
+    public void retryPendingPaymentIntents() {
+        List<Long> paymentIds = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> claimed = paymentRepository.lockIdsAwaitingPaymentIntent(now, SWEEP_BATCH_SIZE);
+            if (!claimed.isEmpty()) {
+                paymentRepository.deferNextAttempt(claimed, now.plus(Duration.ofMillis(intentClaimTimeout)));
+            }
+            return claimed;
+        });
+        if (paymentIds != null && !paymentIds.isEmpty()) {
+            log.info("Retrying payment intent creation for {} payments", paymentIds.size());
+            paymentIds.forEach(this::submitPaymentIntent);
+        }
+    }
+
+    private void submitPaymentIntent(Long paymentId) {
+        try {
+            intentExecutor.execute(() -> createPaymentIntent(paymentId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Payment intent queue full, payment {} left to the retry sweep", paymentId);
+        }
+    }
+
+    private boolean awaitingIntent(Payment payment) {
+        return payment.getStatus() == Payment.PaymentStatus.PENDING && payment.getStripePaymentIntentId() == null;
+    }
+
+    private PaymentIntentCreateParams buildIntentParams(Payment payment) {
+        Order order = payment.getOrder();
+        Long amountInCents = payment.getAmount()
+                .multiply(java.math.BigDecimal.valueOf(100))
+                .longValue();
+
+        return PaymentIntentCreateParams.builder()
+                .setAmount(amountInCents)
+                .setCurrency(payment.getCurrency())
+                .putMetadata("order_id", order.getId().toString())
+                .putMetadata("order_number", order.getOrderNumber())
+                .setAutomaticPaymentMethods(
+                        PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
+                                .setEnabled(true)
+                                .build())
+                .build();
+    }
+
+    private void recordIntent(Long paymentId, String paymentIntentId) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new BadRequestException("Payment not found"));
+        if (!awaitingIntent(payment)) {
+            return;
+        }
+
+        payment.setStripePaymentIntentId(paymentIntentId);
+        payment.setAttempts(payment.getAttempts() + 1);
+        payment.setNextAttemptAt(null);
+        paymentRepository.save(payment);
+        readYourWritesTracker.recordWriteAfterCommit(payment.getOrder().getUser().getId());
+        log.info("Payment intent created: {} for order: {}", paymentIntentId, payment.getOrder().getOrderNumber());
+    }
+
+    private void recordIntentFailure(Long paymentId, StripeException cause) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new BadRequestException("Payment not found"));
+        if (!awaitingIntent(payment)) {
+            return;
+        }
+
+        int attempts = payment.getAttempts() + 1;
+        payment.setAttempts(attempts);
+        if (!isRetryable(cause) || attempts >= maxIntentAttempts) {
+            payment.setNextAttemptAt(null);
+            failPayment(payment, "Payment processing failed: " + cause.getMessage());
+            return;
         }
+
+        payment.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(intentRetryBackoff << (attempts - 1))));
+        paymentRepository.save(payment);
+    }
+
+    // A 409 means another request with the same idempotency key is still in
+    // flight; it will either create the intent or fail on its own
+    private boolean isRetryable(StripeException e) {
+        return e instanceof ApiConnectionException
+                || e instanceof IdempotencyException
+                || (e.getStatusCode() != null && e.getStatusCode() == 409)
+                || e instanceof RateLimitException
+                || e instanceof ApiException
+                || (e.getStatusCode() != null && e.getStatusCode() >= 500);
     }
 
     @Transactional
     public void handlePaymentSuccess(String paymentIntentId) {
         Payment payment = paymentRepository.findByStripePaymentIntentId(paymentIntentId)
                 .orElseThrow(() -> new BadRequestException("Payment not found"));
+        if (payment.getStatus() == Payment.PaymentStatus.SUCCEEDED) {
+            log.info("Payment {} already succeeded, ignoring repeated notification", paymentIntentId);
+            return;
+        }
 
         payment.setStatus(Payment.PaymentStatus.SUCCEEDED);
         paymentRepository.save(payment);
 
         Order order = payment.getOrder();
         order.setStatus(Order.OrderStatus.CONFIRMED);
+        readYourWritesTracker.recordWriteAfterCommit(order.getUser().getId());
 
         log.info("Payment succeeded for order: {}", order.getOrderNumber());
         paymentEventProducer.sendPaymentProcessedEvent(payment);
     }
 
+    /**
+     * A failed attempt is not final in Stripe: the intent goes back to
+     * requires_payment_method and the customer may still pay. Only the reason
+     * is recorded; the order keeps its stock until the intent is canceled.
+     */
     @Transactional
     public void handlePaymentFailure(String paymentIntentId, String failureReason) {
         Payment payment = paymentRepository.findByStripePaymentIntentId(paymentIntentId)
                 .orElseThrow(() -> new BadRequestException("Payment not found"));
+        if (payment.getStatus() != Payment.PaymentStatus.PENDING
+                && payment.getStatus() != Payment.PaymentStatus.PROCESSING) {
+            return;
+        }
+
+        payment.setFailureReason(failureReason);
+        paymentRepository.save(payment);
+        log.warn("Payment attempt failed for order: {} - Reason: {}",
+                payment.getOrder().getOrderNumber(), failureReason);
+    }
+
+    @Transactional
+    public void handlePaymentCanceled(String paymentIntentId, String reason) {
+        Payment payment = paymentRepository.findByStripePaymentIntentId(paymentIntentId)
+                .orElseThrow(() -> new BadRequestException("Payment not found"));
+        failPayment(payment, reason);
+    }
+
+    /**
+     * Terminal failure: cancels the order and gives its stock back. Does
+     * nothing once the payment has succeeded or already failed, so a repeated
+     * or replayed event cannot cancel a paid order or release stock twice.
+     */
+    private void failPayment(Payment payment, String failureReason) {
+        if (payment.getStatus() == Payment.PaymentStatus.SUCCEEDED
+                || payment.getStatus() == Payment.PaymentStatus.FAILED) {
+            log.info("Payment {} already {}, ignoring failure", payment.getId(), payment.getStatus());
+            return;
+        }
 
         payment.setStatus(Payment.PaymentStatus.FAILED);
         payment.setFailureReason(failureReason);
@@ -91,7 +299,14 @@ public class PaymentService {
 
         Order order = payment.getOrder();
         order.setStatus(Order.OrderStatus.CANCELLED);
+        readYourWritesTracker.recordWriteAfterCommit(order.getUser().getId());
+
+        inventoryService.release(order.getOrderItems().stream()
+                .collect(Collectors.toMap(item -> item.getPlant().getId(), OrderItem::getQuantity, Integer::sum)));
 
         log.error("Payment failed for order: {} - Reason: {}", order.getOrderNumber(), failureReason);
     }
+
+    private record IntentRequest(PaymentIntentCreateParams params, String idempotencyKey) {
+    }
 }
@@ -0,0 +1,70 @@
+package com.greenroots.service;
+
+import com.greenroots.dto.plant.PlantDTO;
+import com.greenroots.entity.Plant;
+import com.greenroots.exception.ResourceNotFoundException;
+import com.greenroots.repository.PlantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cached plant documents without stock levels. Stock changes on every order,
+ * so it lives in {@link InventoryService} and is merged in at read time; these
+ * entries only change when an admin edits a plant.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlantCatalog {
+
+    public static final String CACHE_NAME = "plants";
+    public static final String ALL_PLANTS_KEY = "all";
+
+    private final PlantRepository plantRepository;
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = CACHE_NAME, key = "'all'", sync = true)
+    public List<PlantDTO> getAllPlants() {
+        return loadAllPlants();
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = CACHE_NAME, key = "#id", sync = true)
+    public PlantDTO getPlantById(Long id) {
+        Plant plant = plantRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
+        return toCatalogEntry(plant);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = CACHE_NAME, key = "'category_' + #category", sync = true)
+    public List<PlantDTO> getPlantsByCategory(Plant.Category category) {
+        return loadPlantsByCategory(category);
+    }
+
+    public List<PlantDTO> loadAllPlants() {
+        return plantRepository.findByActiveTrue().stream()
+                .map(this::toCatalogEntry)
+                .collect(Collectors.toList());
+    }
+
+    public List<PlantDTO> loadPlantsByCategory(Plant.Category category) {
+        return plantRepository.findActivePlantsByCategory(category).stream()
+                .map(this::toCatalogEntry)
+                .collect(Collectors.toList());
+    }
+
+    public PlantDTO toCatalogEntry(Plant plant) {
+        return PlantDTO.fromEntity(plant).toBuilder()
+                .stockQuantity(null)
+                .build();
+    }
+
+    public static String categoryKey(Plant.Category category) {
+        return "category_" + category;
+    }
+}
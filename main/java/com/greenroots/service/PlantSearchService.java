@@ -0,0 +1,163 @@
+package com.greenroots.service;
+
+import com.greenroots.datasource.PrimaryReads;
+import com.greenroots.dto.plant.PlantDTO;
+import com.greenroots.dto.plant.PlantSearchResponse;
+import com.greenroots.entity.Plant;
+import com.greenroots.repository.PlantRepository;
+import com.greenroots.search.PlantSearchIndex;
+import com.greenroots.search.PlantSearchQuery;
+import com.greenroots.util.TransactionUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Answers catalog searches from a {@link PlantSearchIndex} held in memory, so
+ * a search costs no database round trip. Plant changes are applied to the
+ * local index after commit and announced to the other nodes over Redis
+ * pub/sub; a periodic full rebuild repairs anything a lost message missed.
+ * Changes applied while a rebuild is loading are replayed onto the new index
+ * before it is swapped in, so the rebuild cannot undo them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlantSearchService implements MessageListener {
+
+    public static final String CHANNEL = "catalog:plant-changed";
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final PlantRepository plantRepository;
+    private final PlantCatalog plantCatalog;
+    private final InventoryService inventoryService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PrimaryReads primaryReads;
+    private final MeterRegistry meterRegistry;
+
+    private final Object indexLock = new Object();
+
+    private volatile PlantSearchIndex index = new PlantSearchIndex();
+
+    // Changes made since the running rebuild took its snapshot; null when no rebuild is running
+    private List<Consumer<PlantSearchIndex>> changesDuringRebuild;
+
+    public PlantSearchResponse search(PlantSearchQuery query, Integer offset, Integer limit) {
+        int from = offset == null ? 0 : Math.max(offset, 0);
+        int size = limit == null ? DEFAULT_LIMIT : Math.min(Math.max(limit, 1), MAX_LIMIT);
+        PlantSearchIndex.Result result = index.search(query, from, size);
+        return PlantSearchResponse.builder()
+                .total(result.total())
+                .plants(inventoryService.withCurrentStock(result.plants()))
+                .build();
+    }
+
+    /**
+     * Applies a plant change to this node's index once the transaction
+     * commits, and tells the other nodes to reload it.
+     */
+    public void indexAfterCommit(Plant plant) {
+        TransactionUtils.afterCommit(() -> {
+            apply(plant);
+            try {
+                stringRedisTemplate.convertAndSend(CHANNEL, nodeId + ":" + plant.getId());
+            } catch (DataAccessException e) {
+                log.error("Failed to publish search index change for plant {}: {}", plant.getId(), e.getMessage());
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        Gauge.builder("catalog.search.index.size", this, service -> service.index.size())
+                .register(meterRegistry);
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.search.rebuild-interval}",
+            initialDelayString = "${app.catalog.search.rebuild-interval}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        PlantSearchIndex rebuilt = new PlantSearchIndex();
+        synchronized (indexLock) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Plant> plants = plantRepository.streamActive(null)) {
+                    rebuilt.load(plants, plantCatalog::toCatalogEntry);
+                }
+            });
+            synchronized (indexLock) {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                log.info("Rebuilt plant search index with {} plants in {} ms, replayed {} concurrent changes",
+                        rebuilt.size(), (System.nanoTime() - started) / 1_000_000, changesDuringRebuild.size());
+                index = rebuilt;
+            }
+        } finally {
+            synchronized (indexLock) {
+                changesDuringRebuild = null;
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+
+        Long plantId;
+        try {
+            plantId = Long.valueOf(body.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            log.error("Ignoring malformed search index message: {}", body);
+            return;
+        }
+        // The message follows a commit the replica may not have applied yet
+        primaryReads.execute(() -> plantRepository.findById(plantId)).ifPresentOrElse(this::apply,
+                () -> apply(searchIndex -> searchIndex.remove(plantId)));
+    }
+
+    private void apply(Plant plant) {
+        if (Boolean.TRUE.equals(plant.getActive())) {
+            PlantDTO document = plantCatalog.toCatalogEntry(plant);
+            apply(searchIndex -> searchIndex.upsert(plant, document));
+        } else {
+            apply(searchIndex -> searchIndex.remove(plant.getId()));
+        }
+    }
+
+    private void apply(Consumer<PlantSearchIndex> change) {
+        synchronized (indexLock) {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+}
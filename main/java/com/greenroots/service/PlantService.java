@@ -1,18 +1,28 @@
 package com.greenroots.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.greenroots.cache.CacheRefresher;
+import com.greenroots.datasource.PrimaryReads;
 import com.greenroots.dto.plant.PlantDTO;
+import com.greenroots.dto.plant.PlantPageResponse;
 import com.greenroots.dto.plant.PlantRequest;
 import com.greenroots.entity.Plant;
 import com.greenroots.exception.ResourceNotFoundException;
 import com.greenroots.repository.PlantRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,34 +30,74 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PlantService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final byte[] NEWLINE = {'\n'};
+
     private final PlantRepository plantRepository;
+    private final PlantCatalog plantCatalog;
+    private final InventoryService inventoryService;
+    private final CacheRefresher cacheRefresher;
+    private final PlantSearchService plantSearchService;
+    private final PrimaryReads primaryReads;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
-    @Transactional(readOnly = true)
-    @Cacheable(value = "plants", key = "'all'")
     public List<PlantDTO> getAllPlants() {
-        return plantRepository.findByActiveTrue().stream()
-                .map(PlantDTO::fromEntity)
-                .collect(Collectors.toList());
+        return inventoryService.withCurrentStock(plantCatalog.getAllPlants());
     }
 
+    /**
+     * One page of active plants in id order. Pass the returned cursor back to
+     * continue; it is null on the last page.
+     */
     @Transactional(readOnly = true)
-    @Cacheable(value = "plants", key = "#id")
+    public PlantPageResponse getPlantPage(Plant.Category category, Long cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<Plant> plants = plantRepository.findActivePage(category, cursor == null ? 0L : cursor,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = plants.size() > pageSize;
+        List<Plant> page = hasMore ? plants.subList(0, pageSize) : plants;
+        return PlantPageResponse.builder()
+                .plants(withCurrentStock(page))
+                .nextCursor(hasMore ? page.get(page.size() - 1).getId() : null)
+                .build();
+    }
+
+    /**
+     * Writes every active plant as one JSON document per line. Rows are read in
+     * keyset chunks of {@link PlantRepository#STREAM_FETCH_SIZE}, each in its
+     * own short read transaction, so no connection is held while writing to a
+     * slow client, and each chunk is detached once written, so memory stays
+     * flat however large the catalog is.
+     */
+    public void streamPlants(Plant.Category category, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PlantDTO.class);
+        PageRequest chunkRequest = PageRequest.of(0, PlantRepository.STREAM_FETCH_SIZE);
+
+        long afterId = 0L;
+        boolean more = true;
+        while (more) {
+            List<Plant> chunk = new ArrayList<>(plantRepository.findActivePage(category, afterId, chunkRequest));
+            more = chunk.size() == PlantRepository.STREAM_FETCH_SIZE;
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+            writeChunk(chunk, writer, out);
+        }
+        out.flush();
+    }
+
     public PlantDTO getPlantById(Long id) {
-        Plant plant = plantRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
-        return PlantDTO.fromEntity(plant);
+        return inventoryService.withCurrentStock(plantCatalog.getPlantById(id));
     }
 
-    @Transactional(readOnly = true)
-    @Cacheable(value = "plants", key = "'category_' + #category")
     public List<PlantDTO> getPlantsByCategory(Plant.Category category) {
-        return plantRepository.findActivePlantsByCategory(category).stream()
-                .map(PlantDTO::fromEntity)
-                .collect(Collectors.toList());
+        return inventoryService.withCurrentStock(plantCatalog.getPlantsByCategory(category));
     }
 
     @Transactional
-    @CacheEvict(value = "plants", allEntries = true)
     public PlantDTO createPlant(PlantRequest request) {
         Plant plant = Plant.builder()
                 .name(request.getName())
@@ -64,14 +114,17 @@ public class PlantService {
 
         plant = plantRepository.save(plant);
         log.info("Plant created successfully: {}", plant.getName());
+
+        inventoryService.setStockAfterCommit(plant.getId(), plant.getStockQuantity());
+        refreshCatalogEntries(plant, plant.getCategory());
         return PlantDTO.fromEntity(plant);
     }
 
     @Transactional
-    @CacheEvict(value = "plants", allEntries = true)
     public PlantDTO updatePlant(Long id, PlantRequest request) {
         Plant plant = plantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
+        Plant.Category previousCategory = plant.getCategory();
 
         plant.setName(request.getName());
         plant.setScientificName(request.getScientificName());
@@ -85,16 +138,56 @@ public class PlantService {
 
         plant = plantRepository.save(plant);
         log.info("Plant updated successfully: {}", plant.getName());
+
+        inventoryService.setStockAfterCommit(plant.getId(), plant.getStockQuantity());
+        refreshCatalogEntries(plant, previousCategory, plant.getCategory());
         return PlantDTO.fromEntity(plant);
     }
 
     @Transactional
-    @CacheEvict(value = "plants", allEntries = true)
     public void deletePlant(Long id) {
         Plant plant = plantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found with id: " + id));
         plant.setActive(false);
-        plantRepository.save(plant);
+        plant = plantRepository.save(plant);
         log.info("Plant soft deleted: {}", plant.getName());
+
+        refreshCatalogEntries(plant, plant.getCategory());
+    }
+
+    private void writeChunk(List<Plant> chunk, ObjectWriter writer, OutputStream out) throws IOException {
+        for (PlantDTO plant : withCurrentStock(chunk)) {
+            out.write(writer.writeValueAsBytes(plant));
+            out.write(NEWLINE);
+        }
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+
+    private List<PlantDTO> withCurrentStock(List<Plant> plants) {
+        Map<Long, Integer> stock = inventoryService.getStock(plants.stream()
+                .map(Plant::getId)
+                .collect(Collectors.toList()));
+        return plants.stream()
+                .map(plant -> PlantDTO.fromEntity(plant).toBuilder()
+                        .stockQuantity(stock.get(plant.getId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces only the entries a plant change can affect: the plant itself,
+     * the full list and the lists of its previous and current category, and
+     * updates the search index. Reloads read the primary, since they run right
+     * after the commit a replica may not have applied yet.
+     */
+    private void refreshCatalogEntries(Plant plant, Plant.Category... categories) {
+        plantSearchService.indexAfterCommit(plant);
+        cacheRefresher.putAfterCommit(PlantCatalog.CACHE_NAME, plant.getId(), plantCatalog.toCatalogEntry(plant));
+        cacheRefresher.refreshAfterCommit(PlantCatalog.CACHE_NAME, PlantCatalog.ALL_PLANTS_KEY,
+                () -> primaryReads.execute(plantCatalog::loadAllPlants));
+        Arrays.stream(categories).distinct().forEach(category ->
+                cacheRefresher.refreshAfterCommit(PlantCatalog.CACHE_NAME, PlantCatalog.categoryKey(category),
+                        () -> primaryReads.execute(() -> plantCatalog.loadPlantsByCategory(category))));
     }
 }
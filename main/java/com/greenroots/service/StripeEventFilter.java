@@ -0,0 +1,116 @@
+package com.greenroots.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Hot filter in front of the {@code stripe_webhook_events} table: Stripe event
+ * ids seen recently are remembered in a local cache and in Redis for as long
+ * as Stripe keeps retrying, so redeliveries are dropped without a database
+ * round trip. The table's unique key stays the final authority.
+ *
+ * An event is claimed with a short-lived {@value #PROCESSING} marker and only
+ * remembered for the full TTL once its row has been stored, so a node dying
+ * between the claim and the insert cannot make Stripe's retries look like
+ * duplicates.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StripeEventFilter {
+
+    private static final String KEY_PREFIX = "stripe:event:";
+    private static final String PROCESSING = "processing";
+    private static final String STORED = "stored";
+
+    // Returns the current marker, or sets the processing marker and returns nil
+    private static final RedisScript<String> CLAIM = new DefaultRedisScript<>(
+            "local state = redis.call('GET', KEYS[1]) "
+                    + "if state then return state end "
+                    + "redis.call('SET', KEYS[1], '" + PROCESSING + "', 'PX', ARGV[1]) "
+                    + "return nil",
+            String.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.stripe.webhook.dedup.ttl}")
+    private Duration ttl;
+
+    @Value("${app.stripe.webhook.dedup.processing-ttl}")
+    private Duration processingTtl;
+
+    @Value("${app.stripe.webhook.dedup.local-size}")
+    private long localSize;
+
+    private Cache<String, Boolean> seen;
+
+    @PostConstruct
+    public void init() {
+        seen = Caffeine.newBuilder()
+                .maximumSize(localSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns false if the event is known to be stored already. Otherwise the
+     * event goes on to the database insert, including when another request is
+     * storing it right now: if that insert fails, this one must not be
+     * answered as a duplicate. When Redis is unavailable the decision is left
+     * to the database.
+     */
+    public boolean claim(String stripeEventId) {
+        if (seen.getIfPresent(stripeEventId) != null) {
+            return false;
+        }
+        try {
+            String state = stringRedisTemplate.execute(CLAIM, List.of(KEY_PREFIX + stripeEventId),
+                    String.valueOf(processingTtl.toMillis()));
+            if (STORED.equals(state)) {
+                seen.put(stripeEventId, Boolean.TRUE);
+                return false;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Redis unavailable for Stripe event dedup, falling back to database: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Remembers an event whose row is stored, for as long as Stripe retries.
+     */
+    public void markSeen(String stripeEventId) {
+        seen.put(stripeEventId, Boolean.TRUE);
+        try {
+            stringRedisTemplate.opsForValue().set(KEY_PREFIX + stripeEventId, STORED, ttl);
+        } catch (DataAccessException e) {
+            log.warn("Failed to record Stripe event {} as stored, its retries go to the database: {}",
+                    stripeEventId, e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets a claim whose event could not be stored, so Stripe's retry is
+     * accepted.
+     */
+    public void release(String stripeEventId) {
+        seen.invalidate(stripeEventId);
+        try {
+            stringRedisTemplate.delete(KEY_PREFIX + stripeEventId);
+        } catch (DataAccessException e) {
+            log.error("Failed to release Stripe event claim {}: {}", stripeEventId, e.getMessage());
+        }
+    }
+}
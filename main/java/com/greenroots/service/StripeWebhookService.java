@@ -0,0 +1,239 @@
+package com.greenroots.service;
+
+import com.greenroots.entity.StripeWebhookEvent;
+import com.greenroots.repository.StripeWebhookEventRepository;
+import com.greenroots.util.ThreadFactories;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.ApiResource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inbox for verified Stripe webhook events. The webhook request only stores
+ * the raw event; processing happens on a fixed set of single-threaded lanes,
+ * one lane per PaymentIntent (by hash), so events of the same intent are
+ * applied in the order they were received. Lane queues are bounded: when they
+ * are full, events stay RECEIVED and a scheduled sweep dispatches them later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StripeWebhookService {
+
+    public static final String PAYMENT_SUCCEEDED = "payment_intent.succeeded";
+    public static final String PAYMENT_FAILED = "payment_intent.payment_failed";
+    public static final String PAYMENT_CANCELED = "payment_intent.canceled";
+
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final PaymentService paymentService;
+    private final StripeEventFilter stripeEventFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+
+    @Value("${app.stripe.webhook.lanes}")
+    private int laneCount;
+
+    @Value("${app.stripe.webhook.lane-capacity}")
+    private int laneCapacity;
+
+    @Value("${app.stripe.webhook.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${app.stripe.webhook.sweep-delay}")
+    private long sweepDelay;
+
+    private ThreadPoolExecutor[] lanes;
+    private final Set<String> queuedIntents = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+        lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(laneCapacity),
+                    ThreadFactories.named("stripe-webhook-" + i + "-", virtualThreads));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    public boolean isHandled(String eventType) {
+        return PAYMENT_SUCCEEDED.equals(eventType) || PAYMENT_FAILED.equals(eventType)
+                || PAYMENT_CANCELED.equals(eventType);
+    }
+
+    /**
+     * Durably records a verified event and queues it for processing. Returns
+     * false if an event with the same Stripe id was already received.
+     */
+    public boolean receive(Event event, String paymentIntentId, String payload) {
+        if (!stripeEventFilter.claim(event.getId())) {
+            return false;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> webhookEventRepository.save(StripeWebhookEvent.builder()
+                    .stripeEventId(event.getId())
+                    .eventType(event.getType())
+                    .paymentIntentId(paymentIntentId)
+                    .payload(payload)
+                    .status(StripeWebhookEvent.Status.RECEIVED)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            stripeEventFilter.markSeen(event.getId());
+            return false;
+        } catch (RuntimeException e) {
+            stripeEventFilter.release(event.getId());
+            throw e;
+        }
+
+        stripeEventFilter.markSeen(event.getId());
+        dispatch(paymentIntentId);
+        return true;
+    }
+
+    /**
+     * Puts the FAILED events received in the window back into the queue, plus
+     * the PROCESSED ones if {@code includeProcessed} is set. Replaying a
+     * processed event does not change a settled payment: successes and
+     * terminal failures are ignored once the payment succeeded or failed, and
+     * a failed attempt is only recorded on a pending payment. Returns the
+     * number of events requeued.
+     */
+    public int replay(LocalDateTime from, LocalDateTime to, boolean includeProcessed) {
+        List<StripeWebhookEvent.Status> statuses = includeProcessed
+                ? List.of(StripeWebhookEvent.Status.FAILED, StripeWebhookEvent.Status.PROCESSED)
+                : List.of(StripeWebhookEvent.Status.FAILED);
+        Integer replayed = transactionTemplate.execute(status ->
+                webhookEventRepository.requeueReceivedBetween(from, to, statuses));
+        webhookEventRepository.findPaymentIntentIdsReceivedBetween(from, to).forEach(this::dispatch);
+        log.info("Replaying {} Stripe webhook events {} received between {} and {}", replayed, statuses, from, to);
+        return replayed == null ? 0 : replayed;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stripe.webhook.sweep-interval}")
+    public void sweep() {
+        List<String> paymentIntentIds = webhookEventRepository.findPaymentIntentIdsWithReceivedEvents(
+                LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(sweepDelay)),
+                PageRequest.of(0, SWEEP_BATCH_SIZE));
+        paymentIntentIds.forEach(this::dispatch);
+    }
+
+    private void dispatch(String paymentIntentId) {
+        if (!queuedIntents.add(paymentIntentId)) {
+            return;
+        }
+        try {
+            lanes[Math.floorMod(paymentIntentId.hashCode(), lanes.length)].execute(() -> drain(paymentIntentId));
+        } catch (RejectedExecutionException e) {
+            queuedIntents.remove(paymentIntentId);
+            log.warn("Webhook lane full, events for {} left to the sweep", paymentIntentId);
+        }
+    }
+
+    /**
+     * Applies every received event of one PaymentIntent in arrival order. Stops
+     * at the first event that has to be retried so later events never overtake
+     * it.
+     */
+    private void drain(String paymentIntentId) {
+        queuedIntents.remove(paymentIntentId);
+        for (Long eventId : webhookEventRepository.findReceivedIdsByPaymentIntentId(paymentIntentId)) {
+            if (!process(eventId)) {
+                return;
+            }
+        }
+    }
+
+    private boolean process(Long eventId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> webhookEventRepository.findByIdForUpdate(eventId)
+                    .filter(event -> event.getStatus() == StripeWebhookEvent.Status.RECEIVED)
+                    .ifPresent(event -> {
+                        apply(event);
+                        event.setStatus(StripeWebhookEvent.Status.PROCESSED);
+                        event.setProcessedAt(LocalDateTime.now());
+                    }));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Stripe webhook event {} failed: {}", eventId, e.getMessage());
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> recordFailure(eventId, e)));
+        }
+    }
+
+    private void apply(StripeWebhookEvent event) {
+        if (PAYMENT_SUCCEEDED.equals(event.getEventType())) {
+            paymentService.handlePaymentSuccess(event.getPaymentIntentId());
+        } else if (PAYMENT_FAILED.equals(event.getEventType())) {
+            paymentService.handlePaymentFailure(event.getPaymentIntentId(), failureReason(event));
+        } else if (PAYMENT_CANCELED.equals(event.getEventType())) {
+            paymentService.handlePaymentCanceled(event.getPaymentIntentId(), cancellationReason(event));
+        }
+    }
+
+    private String failureReason(StripeWebhookEvent event) {
+        return ApiResource.GSON.fromJson(event.getPayload(), Event.class)
+                .getDataObjectDeserializer().getObject()
+                .map(PaymentIntent.class::cast)
+                .filter(paymentIntent -> paymentIntent.getLastPaymentError() != null)
+                .map(paymentIntent -> paymentIntent.getLastPaymentError().getMessage())
+                .orElse("Unknown error");
+    }
+
+    private String cancellationReason(StripeWebhookEvent event) {
+        return ApiResource.GSON.fromJson(event.getPayload(), Event.class)
+                .getDataObjectDeserializer().getObject()
+                .map(PaymentIntent.class::cast)
+                .map(PaymentIntent::getCancellationReason)
+                .map(reason -> "Payment canceled: " + reason)
+                .orElse("Payment canceled");
+    }
+
+    /**
+     * Returns true if the event was given up on, so the lane may move past it.
+     */
+    private boolean recordFailure(Long eventId, RuntimeException cause) {
+        StripeWebhookEvent event = webhookEventRepository.findById(eventId).orElse(null);
+        if (event == null) {
+            return true;
+        }
+
+        event.setAttempts(event.getAttempts() + 1);
+        String message = String.valueOf(cause.getMessage());
+        event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        if (event.getAttempts() >= maxAttempts) {
+            event.setStatus(StripeWebhookEvent.Status.FAILED);
+            log.error("Giving up on Stripe webhook event {} after {} attempts", event.getStripeEventId(), maxAttempts);
+            return true;
+        }
+        return false;
+    }
+}
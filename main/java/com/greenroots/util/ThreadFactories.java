@@ -0,0 +1,23 @@
+package com.greenroots.util;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * Threads named {@code prefix} plus a counter: virtual threads when
+     * {@code virtual} is set (Java 21+), platform threads otherwise.
+     */
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+}
@@ -0,0 +1,3 @@
+ALTER TABLE stripe_webhook_events ADD COLUMN replay_count INTEGER NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_stripe_webhook_events_received_at ON stripe_webhook_events(received_at);
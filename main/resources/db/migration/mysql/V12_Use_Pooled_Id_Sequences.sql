@@ -0,0 +1,18 @@
+-- MySQL has no sequences; Hibernate emulates them with one-row tables and
+-- allocates ids in blocks of 50. The AUTO_INCREMENT columns are left as they
+-- are; the application always supplies ids.
+
+CREATE TABLE users_seq (next_val BIGINT NOT NULL);
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM users;
+
+CREATE TABLE plants_seq (next_val BIGINT NOT NULL);
+INSERT INTO plants_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM plants;
+
+CREATE TABLE orders_seq (next_val BIGINT NOT NULL);
+INSERT INTO orders_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM orders;
+
+CREATE TABLE order_items_seq (next_val BIGINT NOT NULL);
+INSERT INTO order_items_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM order_items;
+
+CREATE TABLE payments_seq (next_val BIGINT NOT NULL);
+INSERT INTO payments_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM payments;
@@ -0,0 +1,6 @@
+CREATE TABLE stock_write_backs (
+    batch_id VARCHAR(36) PRIMARY KEY,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_stock_write_backs_applied_at ON stock_write_backs(applied_at);
@@ -0,0 +1,5 @@
+ALTER TABLE payments MODIFY stripe_payment_intent_id VARCHAR(255) NULL;
+ALTER TABLE payments ADD COLUMN attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE payments ADD COLUMN next_attempt_at TIMESTAMP NULL;
+
+CREATE INDEX idx_payments_next_attempt_at ON payments(next_attempt_at);
@@ -0,0 +1,15 @@
+CREATE TABLE stripe_webhook_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    stripe_event_id VARCHAR(255) NOT NULL UNIQUE,
+    event_type VARCHAR(100) NOT NULL,
+    payment_intent_id VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_stripe_webhook_events_intent_status ON stripe_webhook_events(payment_intent_id, status);
+CREATE INDEX idx_stripe_webhook_events_status_received ON stripe_webhook_events(status, received_at);
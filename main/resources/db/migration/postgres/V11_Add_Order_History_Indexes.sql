@@ -0,0 +1,3 @@
+CREATE INDEX idx_orders_user_created_id ON orders(user_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_status_created_id ON orders(status, created_at DESC, id DESC);
+CREATE INDEX idx_orders_created_id ON orders(created_at DESC, id DESC);
@@ -0,0 +1,27 @@
+-- Ids are allocated by Hibernate in blocks of 50 (pooled optimizer), so the
+-- sequences step by 50 and each value is the top of the block it hands out.
+
+CREATE SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users), false);
+ALTER TABLE users ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE users_id_seq;
+
+CREATE SEQUENCE plants_seq INCREMENT BY 50;
+SELECT setval('plants_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM plants), false);
+ALTER TABLE plants ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE plants_id_seq;
+
+CREATE SEQUENCE orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM orders), false);
+ALTER TABLE orders ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE orders_id_seq;
+
+CREATE SEQUENCE order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_items), false);
+ALTER TABLE order_items ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE order_items_id_seq;
+
+CREATE SEQUENCE payments_seq INCREMENT BY 50;
+SELECT setval('payments_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM payments), false);
+ALTER TABLE payments ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE payments_id_seq;
@@ -0,0 +1,5 @@
+ALTER TABLE payments ALTER COLUMN stripe_payment_intent_id DROP NOT NULL;
+ALTER TABLE payments ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE payments ADD COLUMN next_attempt_at TIMESTAMP;
+
+CREATE INDEX idx_payments_awaiting_intent ON payments(next_attempt_at) WHERE stripe_payment_intent_id IS NULL;
@@ -0,0 +1,155 @@
+package com.greenroots.repository;
+
+import com.greenroots.dto.order.OrderSearchCriteria;
+import com.greenroots.entity.Order;
+import com.greenroots.entity.OrderItem;
+import com.greenroots.entity.Payment;
+import com.greenroots.entity.Plant;
+import com.greenroots.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderRepositoryTest {
+
+    private static final int ORDERS = 30;
+    private static final int ITEMS_PER_ORDER = 8;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .email("history@example.com")
+                .password("secret")
+                .fullName("History User")
+                .phoneNumber("0600000000")
+                .role(User.Role.USER)
+                .active(true)
+                .build());
+        userId = user.getId();
+
+        List<Plant> plants = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            plants.add(entityManager.persist(Plant.builder()
+                    .name("Plant " + i)
+                    .scientificName("Species " + i)
+                    .category(Plant.Category.values()[i % Plant.Category.values().length])
+                    .price(new BigDecimal("9.99"))
+                    .stockQuantity(100)
+                    .lightRequirement(Plant.LightRequirement.values()[0])
+                    .waterRequirement(Plant.WaterRequirement.values()[0])
+                    .imageUrl("-")
+                    .active(true)
+                    .build()));
+        }
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .orderNumber("ORD-" + i)
+                    .user(user)
+                    .status(Order.OrderStatus.PENDING)
+                    .totalAmount(new BigDecimal("79.92"))
+                    .shippingAddress("1 Main St")
+                    .shippingCity("Amsterdam")
+                    .shippingPostalCode("1000AA")
+                    .shippingCountry("NL")
+                    .build();
+            plants.forEach(plant -> order.addOrderItem(OrderItem.builder()
+                    .plant(plant)
+                    .quantity(1)
+                    .priceAtPurchase(plant.getPrice())
+                    .subtotal(plant.getPrice())
+                    .build()));
+            entityManager.persist(order);
+            entityManager.persist(Payment.builder()
+                    .order(order)
+                    .amount(order.getTotalAmount())
+                    .currency("usd")
+                    .status(Payment.PaymentStatus.PENDING)
+                    .idempotencyKey(UUID.randomUUID().toString())
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void historyPageLoadsOrdersItemsPlantsAndPaymentsInTwoStatements() {
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        List<Long> ids = orderRepository.findOrderIds(
+                new OrderSearchCriteria(userId, null, null, null, null, null, PAGE_SIZE));
+        List<Order> orders = orderRepository.findWithDetailsByIdIn(ids);
+        orders.forEach(order -> {
+            assertThat(order.getPayment().getStatus()).isEqualTo(Payment.PaymentStatus.PENDING);
+            order.getOrderItems().forEach(item -> assertThat(item.getPlant().getName()).startsWith("Plant "));
+        });
+
+        assertThat(orders).hasSize(PAGE_SIZE);
+        assertThat(orders).allSatisfy(order -> assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void singleOrderLoadsWithDetailsInOneStatement() {
+        Long orderId = orderRepository.findOrderIds(
+                new OrderSearchCriteria(userId, null, null, null, null, null, 1)).get(0);
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+
+        Order order = orderRepository.findWithDetailsById(orderId).orElseThrow();
+        order.getOrderItems().forEach(item -> item.getPlant().getName());
+        order.getPayment().getStatus();
+
+        assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cursorContinuesAfterTheLastOrderOfThePreviousPage() {
+        List<Long> firstPage = orderRepository.findOrderIds(
+                new OrderSearchCriteria(userId, null, null, null, null, null, PAGE_SIZE));
+        Order last = orderRepository.findById(firstPage.get(firstPage.size() - 1)).orElseThrow();
+
+        List<Long> secondPage = orderRepository.findOrderIds(
+                new OrderSearchCriteria(userId, null, null, null, last.getCreatedAt(), last.getId(), PAGE_SIZE));
+
+        assertThat(secondPage).hasSize(ORDERS - PAGE_SIZE).doesNotContainAnyElementsOf(firstPage);
+        List<Long> all = new ArrayList<>(firstPage);
+        all.addAll(secondPage);
+        assertThat(all).containsExactlyElementsOf(orderRepository.findOrderIds(
+                new OrderSearchCriteria(userId, null, null, null, null, null, ORDERS)));
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+}